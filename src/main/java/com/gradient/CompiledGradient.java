@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.gradient;
+
+/**
+ * An immutable lookup table of the colors along a {@link Gradient}.
+ * <p>
+ * The table holds the color at {@code resolution + 1} evenly spaced indices
+ * from 0.0 to 1.0 inclusive, computed once with {@link Gradient#process(double)}.
+ * Looking a color up is a single array access, so it creates no objects and
+ * any number of threads can share a table. A gradient compiles a new table
+ * whenever its color nodes change, see {@link Gradient#getCompiled()}.
+ * </p>
+ *
+ * @author George Miller
+ */
+public final class CompiledGradient {
+
+    /**
+     * The color at each step along the gradient.
+     */
+    private final int[] colors;
+    /**
+     * The number of steps the gradient is divided into.
+     */
+    private final int resolution;
+
+    /**
+     * Create new instance of CompiledGradient.
+     *
+     * @param colors The color at each step along the gradient.
+     * @param resolution The number of steps the gradient is divided into.
+     */
+    private CompiledGradient(int[] colors, int resolution) {
+        this.colors = colors;
+        this.resolution = resolution;
+    }
+
+    /**
+     * Compile a gradient into a lookup table.
+     *
+     * @param gradient The gradient, which must be formed.
+     * @param resolution The number of steps the gradient is divided into.
+     * @return New instance of CompiledGradient.
+     * @throws GradientException Gradient doesn't have start and end values yet,
+     * so a continuous color gradient can't be computed.
+     */
+    public static CompiledGradient compile(Gradient gradient, int resolution)
+            throws GradientException {
+        if (resolution < 1) {
+            throw new IllegalArgumentException("Resolution must be positive!");
+        } //i
+
+        int[] colors = new int[resolution + 1];
+        for (int i = 0; i <= resolution; i++) {
+            colors[i] = gradient.process((double) i / (double) resolution);
+        } //f
+
+        return new CompiledGradient(colors, resolution);
+    }
+
+    /**
+     * Get the number of steps the gradient is divided into.
+     *
+     * @return The resolution of the table.
+     */
+    public int getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Get the color at a step along the gradient.
+     *
+     * @param step The step, from 0 to the resolution inclusive.
+     * @return The color at that step.
+     */
+    public int getColor(int step) {
+        return colors[step];
+    }
+
+    /**
+     * Get the color nearest a point along the gradient.
+     *
+     * @param index A value between 0.0 and 1.0, which represent the start and
+     * end of the gradient respectively.
+     * @return The color at the nearest step.
+     */
+    public int getColor(double index) {
+        if (index < 0.0 || index > 1.0) {
+            throw new IllegalArgumentException("Illegal gradient index!");
+        } //i
+
+        return colors[(int) Math.round(index * resolution)];
+    }
+}
@@ -36,8 +36,9 @@ import java.util.*;
  * <p>
  * This design avoids storing an entire continuous gradient in memory. Instead,
  * it provides a flexible, on-demand way of generating colors using various interpolation
- * strategies. Color nodes can be dynamically added and removed, and optimized caching is
- * employed to avoid recomputation where possible.
+ * strategies. Color nodes can be dynamically added and removed. Lookups by
+ * {@link #getColor(double)} go through a {@link CompiledGradient} table, which is
+ * compiled on first use and again after the nodes change.
  * </p>
  * <p>
  * To function correctly, the gradient must have defined colors at both ends
@@ -54,9 +55,14 @@ public abstract class Gradient {
      */
     protected List<GradientEntry> gradientEntries = new ArrayList<GradientEntry>();
     /**
-     * Buffer of colors already processed.
+     * The number of steps the compiled table divides the gradient into.
      */
-    protected Map<Double, Integer> colorsProcessed = new HashMap<Double, Integer>();
+    public static final int DEFAULT_RESOLUTION = 100000;
+    /**
+     * Lookup table of the current nodes, null until compiled. Volatile so a
+     * gradient can be shared by rendering threads.
+     */
+    private volatile CompiledGradient compiled;
     /**
      * The first entry.
      */
@@ -109,6 +115,8 @@ public abstract class Gradient {
 
         //Reform gradient.
         Collections.sort(gradientEntries);
+
+        clearBuffer();
     }
 
     /**
@@ -153,10 +161,38 @@ public abstract class Gradient {
     }
 
     /**
-     * Clear all elements in the buffer.
+     * Discard the compiled table, so it is compiled again from the current
+     * nodes.
      */
     private void clearBuffer() {
-        colorsProcessed = new HashMap<Double, Integer>();
+        compiled = null;
+        nodesChanged();
+    }
+
+    /**
+     * Called after color nodes have been added or removed, so subclasses can
+     * discard anything they have precomputed from the nodes.
+     */
+    protected void nodesChanged() {
+    }
+
+    /**
+     * Get the lookup table of the current nodes, compiling it if the nodes
+     * have changed since it was last used.
+     *
+     * @return The compiled gradient.
+     * @throws GradientException Gradient doesn't have start and end values yet,
+     * so a continuous color gradient can't be computed.
+     */
+    public CompiledGradient getCompiled() throws GradientException {
+        CompiledGradient table = compiled;
+        if (table == null) {
+            //Threads racing here build equal tables, either may be kept.
+            table = CompiledGradient.compile(this, DEFAULT_RESOLUTION);
+            compiled = table;
+        } //i
+
+        return table;
     }
 
     /**
@@ -184,20 +220,13 @@ public abstract class Gradient {
      * @param index A value between 0.0 and 1.0, which represent the start and
      * end of the gradient respectively, which represents the index of a
      * continuous color gradient.
-     * @return The color at the point along the gradient specified by the index.
+     * @return The color at the nearest step of the compiled table to the
+     * index.
      * @throws GradientException Gradient doesn't have start and end values yet,
      * so a continuous color gradient can't be computed.
      */
     public int getColor(double index) throws GradientException {
-        Integer color = colorsProcessed.get(index);
-
-        //Flyweight
-        if (color == null) {
-            color = process(index);
-            colorsProcessed.put(index, color);
-        } //i
-
-        return color;
+        return getCompiled().getColor(index);
     }
 
     /**
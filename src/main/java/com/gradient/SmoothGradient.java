@@ -23,6 +23,7 @@
 package com.gradient;
 
 import com.utils.ColorUtils;
+import java.util.List;
 
 /**
  * Converts discrete color nodes into a continuous gradient using Catmull-Rom 
@@ -33,11 +34,31 @@ import com.utils.ColorUtils;
  * nodes. The resulting gradient is ideal for visual applications where 
  * smoothness and continuity are important.
  * </p>
+ * <p>
+ * The polynomial of each segment is computed once from the nodes and kept in
+ * flat arrays, and the segment holding an index is found by binary search, so
+ * palettes with many stops stay cheap. They are computed again when nodes are
+ * added or removed.
+ * </p>
  * 
  * @author George Miller
  */
 public class SmoothGradient extends Gradient {
 
+    /**
+     * Number of coefficients per channel of a segment.
+     */
+    private static final int COEFFICIENTS = 4;
+    /**
+     * Number of coefficients per segment, four channels of four.
+     */
+    private static final int SEGMENT_STRIDE = 4 * COEFFICIENTS;
+    /**
+     * Segments of the current nodes, null until computed. Volatile so a
+     * gradient can be shared by rendering threads.
+     */
+    private volatile Segments segments;
+
     @Override
     public int process(double index) throws GradientException {
         // Valid index?
@@ -50,63 +71,152 @@ public class SmoothGradient extends Gradient {
             throw new GradientException("Gradient not formed!");
         }
 
-        int listIndex = 0;
-        for (int i = 0; i < points - 1; i++) {
-            double index0 = gradientEntries.get(i).getIndex();
-            double index1 = gradientEntries.get(i + 1).getIndex();
-
-            if (index0 <= index && index <= index1) {
-                listIndex = i;
-                break;
-            }
+        Segments current = segments;
+        if (current == null) {
+            // Threads racing here build equal segments, either may be kept
+            current = new Segments(gradientEntries);
+            segments = current;
         }
 
-        // Determine surrounding indices for cubic interpolation
-        int i0 = Math.max(0, listIndex - 1);
-        int i1 = listIndex;
-        int i2 = Math.min(points - 1, listIndex + 1);
-        int i3 = Math.min(points - 1, listIndex + 2);
-
-        double x1 = gradientEntries.get(i1).getIndex();
-        double x2 = gradientEntries.get(i2).getIndex();
-
-        double t = (index - x1) / (x2 - x1); // normalized parameter between 0 and 1
-
-        // Get colors
-        int c0 = gradientEntries.get(i0).getColor();
-        int c1 = gradientEntries.get(i1).getColor();
-        int c2 = gradientEntries.get(i2).getColor();
-        int c3 = gradientEntries.get(i3).getColor();
+        int segment = current.find(index);
+        double t = (index - current.starts[segment]) / current.widths[segment]; // normalized parameter between 0 and 1
+        double t2 = t * t;
+        double t3 = t2 * t;
 
-        int red = (int) cubicInterpolate(ColorUtils.getRed(c0), ColorUtils.getRed(c1),
-                                         ColorUtils.getRed(c2), ColorUtils.getRed(c3), t);
-        int green = (int) cubicInterpolate(ColorUtils.getGreen(c0), ColorUtils.getGreen(c1),
-                                           ColorUtils.getGreen(c2), ColorUtils.getGreen(c3), t);
-        int blue = (int) cubicInterpolate(ColorUtils.getBlue(c0), ColorUtils.getBlue(c1),
-                                          ColorUtils.getBlue(c2), ColorUtils.getBlue(c3), t);
-        int alpha = (int) cubicInterpolate(ColorUtils.getAlpha(c0), ColorUtils.getAlpha(c1),
-                                           ColorUtils.getAlpha(c2), ColorUtils.getAlpha(c3), t);
+        double[] c = current.coefficients;
+        int first = segment * SEGMENT_STRIDE;
+        int alpha = (int) evaluate(c, first, t, t2, t3);
+        int red = (int) evaluate(c, first + COEFFICIENTS, t, t2, t3);
+        int green = (int) evaluate(c, first + 2 * COEFFICIENTS, t, t2, t3);
+        int blue = (int) evaluate(c, first + 3 * COEFFICIENTS, t, t2, t3);
 
         return ColorUtils.toARGB(alpha, red, green, blue);
     }
 
+    @Override
+    protected void nodesChanged() {
+        segments = null;
+    }
+
     /**
-     * Cubic interpolation using Catmull-Rom spline.
+     * Evaluate the Catmull-Rom polynomial of one channel of a segment.
      *
-     * @param p0 Color component before the start point.
-     * @param p1 Start color component.
-     * @param p2 End color component.
-     * @param p3 Color component after the end point.
-     * @param t Normalized position between p1 and p2 (0 <= t <= 1).
+     * @param c The coefficients of all segments.
+     * @param first Index of the first coefficient of the channel.
+     * @param t Normalized position in the segment (0 <= t <= 1).
+     * @param t2 The square of t.
+     * @param t3 The cube of t.
      * @return Interpolated color component.
      */
-    private double cubicInterpolate(double p0, double p1, double p2, double p3, double t) {
-        double t2 = t * t;
-        double t3 = t2 * t;
+    private static double evaluate(double[] c, int first, double t, double t2, double t3) {
+        return 0.5 * (c[first]
+                    + c[first + 1] * t
+                    + c[first + 2] * t2
+                    + c[first + 3] * t3);
+    }
+
+    /**
+     * The Catmull-Rom polynomials between each pair of neighbouring nodes,
+     * stored in flat arrays.
+     */
+    private static class Segments {
+
+        /**
+         * The index of the node each segment starts at.
+         */
+        private final double[] starts;
+        /**
+         * The index of the node each segment ends at.
+         */
+        private final double[] ends;
+        /**
+         * The distance between the nodes at each end of each segment.
+         */
+        private final double[] widths;
+        /**
+         * Coefficients of each segment: alpha, red, green then blue, each
+         * from the constant term up.
+         */
+        private final double[] coefficients;
+
+        /**
+         * Compute the segments between sorted nodes.
+         *
+         * @param entries The nodes of the gradient, sorted by index.
+         */
+        Segments(List<GradientEntry> entries) {
+            int points = entries.size();
+            int count = Math.max(1, points - 1);
+            starts = new double[count];
+            ends = new double[count];
+            widths = new double[count];
+            coefficients = new double[count * SEGMENT_STRIDE];
+
+            for (int i = 0; i < count; i++) {
+                // Determine surrounding indices for cubic interpolation
+                int i0 = Math.max(0, i - 1);
+                int i2 = Math.min(points - 1, i + 1);
+                int i3 = Math.min(points - 1, i + 2);
+
+                double x1 = entries.get(i).getIndex();
+                double x2 = entries.get(i2).getIndex();
+                starts[i] = x1;
+                ends[i] = x2;
+                widths[i] = x2 - x1;
 
-        return 0.5 * ((2 * p1)
-                    + (-p0 + p2) * t
-                    + (2*p0 - 5*p1 + 4*p2 - p3) * t2
-                    + (-p0 + 3*p1 - 3*p2 + p3) * t3);
+                int c0 = entries.get(i0).getColor();
+                int c1 = entries.get(i).getColor();
+                int c2 = entries.get(i2).getColor();
+                int c3 = entries.get(i3).getColor();
+
+                int first = i * SEGMENT_STRIDE;
+                store(first, ColorUtils.getAlpha(c0), ColorUtils.getAlpha(c1),
+                        ColorUtils.getAlpha(c2), ColorUtils.getAlpha(c3));
+                store(first + COEFFICIENTS, ColorUtils.getRed(c0), ColorUtils.getRed(c1),
+                        ColorUtils.getRed(c2), ColorUtils.getRed(c3));
+                store(first + 2 * COEFFICIENTS, ColorUtils.getGreen(c0), ColorUtils.getGreen(c1),
+                        ColorUtils.getGreen(c2), ColorUtils.getGreen(c3));
+                store(first + 3 * COEFFICIENTS, ColorUtils.getBlue(c0), ColorUtils.getBlue(c1),
+                        ColorUtils.getBlue(c2), ColorUtils.getBlue(c3));
+            }
+        }
+
+        /**
+         * Store the Catmull-Rom coefficients of one channel of a segment.
+         *
+         * @param first Index of the first coefficient of the channel.
+         * @param p0 Color component before the start point.
+         * @param p1 Start color component.
+         * @param p2 End color component.
+         * @param p3 Color component after the end point.
+         */
+        private void store(int first, double p0, double p1, double p2, double p3) {
+            coefficients[first] = 2 * p1;
+            coefficients[first + 1] = -p0 + p2;
+            coefficients[first + 2] = 2*p0 - 5*p1 + 4*p2 - p3;
+            coefficients[first + 3] = -p0 + 3*p1 - 3*p2 + p3;
+        }
+
+        /**
+         * Find the first segment whose end is at or after an index, by binary
+         * search.
+         *
+         * @param index A value between 0.0 and 1.0.
+         * @return The segment containing the index.
+         */
+        int find(double index) {
+            int low = 0;
+            int high = starts.length - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (ends[middle] >= index) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+
+            return low;
+        }
     }
 }
@@ -112,6 +112,25 @@ public class PixelToDoubleCartesian implements ConvertCoordinate<Double, Double>
         return new PixelToDoubleCartesian(minX, minY, xPlanePerPixel, yPlanePerPixel, heightDouble);
     }
 
+    /**
+     * Create a new instance of PixelToDoubleCartesian from the values it
+     * keeps, as returned by its getters. This recreates a converter exactly,
+     * such as one stored in a file.
+     *
+     * @param minX The smallest value of the x-axis on the image.
+     * @param minY The smallest value of the y-axis on the image.
+     * @param xPlanePerPixel The length of the x-axis that each pixel
+     * represents.
+     * @param yPlanePerPixel The length of the y-axis the that each pixel
+     * represents.
+     * @param height Height of the image the fractal is being rendered in.
+     * @return New instance of PixelToDoubleCartesian.
+     */
+    public static PixelToDoubleCartesian createFromPixelSize(double minX, double minY,
+            double xPlanePerPixel, double yPlanePerPixel, int height) {
+        return new PixelToDoubleCartesian(minX, minY, xPlanePerPixel, yPlanePerPixel, height - 1);
+    }
+
     /**
      * Create a new instance of PixelToDoubleCartesian from the center
      * coordinate and the width of the graph shown on image (maxX - minX).
@@ -171,14 +190,72 @@ public class PixelToDoubleCartesian implements ConvertCoordinate<Double, Double>
         return new PixelToDoubleCartesian(minX, minY, xPlanePerPixel, yPlanePerPixel, heightDouble);
     }
     
+    /**
+     * Get the smallest value of the x-axis on the image.
+     *
+     * @return The smallest x-coordinate.
+     */
+    public double getMinX() {
+        return minX;
+    }
+
+    /**
+     * Get the smallest value of the y-axis on the image.
+     *
+     * @return The smallest y-coordinate.
+     */
+    public double getMinY() {
+        return minY;
+    }
+
+    /**
+     * Get the length of the x-axis that each pixel represents.
+     *
+     * @return The length of the x-axis that each pixel represents.
+     */
+    public double getXPlanePerPixel() {
+        return xPlanePerPixel;
+    }
+
+    /**
+     * Get the length of the y-axis that each pixel represents.
+     *
+     * @return The length of the y-axis that each pixel represents.
+     */
+    public double getYPlanePerPixel() {
+        return yPlanePerPixel;
+    }
+
     @Override
     public Double convertX(Double x) {
-        double xLength = x * xPlanePerPixel;
-        return minX + xLength;
+        return toPlaneX(x);
     }
 
     @Override
     public Double convertY(Double y) {
+        return toPlaneY(y);
+    }
+
+    /**
+     * Converts a pixel x-coordinate to the x-coordinate on the plane without
+     * boxing.
+     *
+     * @param x The x-coordinate of the pixel.
+     * @return The x-coordinate on the plane.
+     */
+    public double toPlaneX(double x) {
+        double xLength = x * xPlanePerPixel;
+        return minX + xLength;
+    }
+
+    /**
+     * Converts a pixel y-coordinate to the y-coordinate on the plane without
+     * boxing.
+     *
+     * @param y The y-coordinate of the pixel.
+     * @return The y-coordinate on the plane.
+     */
+    public double toPlaneY(double y) {
         double yLength = (height - y) * yPlanePerPixel;
         return minY + yLength;
     }
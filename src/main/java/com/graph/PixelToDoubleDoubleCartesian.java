@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.graph;
+
+import com.mandelbrot.DoubleDouble;
+
+/**
+ * Converts image-space coordinates to their equivalent positions in the
+ * Cartesian plane using double-double arithmetic.
+ * <p>
+ * This is the {@link DoubleDouble} counterpart of
+ * {@link PixelToDoubleCartesian}, for zooms where the center of the plane
+ * needs more digits than a double holds. The size of a pixel still fits a
+ * double, so {@link #toRelativeCartesian()} gives an equivalent
+ * {@link PixelToDoubleCartesian} for the offsets of pixels from the center,
+ * which is what renderers and double-double processors work with.
+ * </p>
+ * <p>
+ * Instances of this class are immutable.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class PixelToDoubleDoubleCartesian implements ConvertCoordinate<DoubleDouble, DoubleDouble> {
+
+    /**
+     * The x-coordinate of the center of the plane.
+     */
+    private final DoubleDouble xCenter;
+    /**
+     * The y-coordinate of the center of the plane.
+     */
+    private final DoubleDouble yCenter;
+    /**
+     * The width of the plane.
+     */
+    private final double planeWidth;
+    /**
+     * Converter for the offsets of pixels from the center.
+     */
+    private final PixelToDoubleCartesian relative;
+
+    /**
+     * Create new instance of PixelToDoubleDoubleCartesian.
+     *
+     * @param xCenter The x-coordinate of the center of the plane.
+     * @param yCenter The y-coordinate of the center of the plane.
+     * @param planeWidth The width of the plane.
+     * @param relative Converter for the offsets of pixels from the center.
+     */
+    private PixelToDoubleDoubleCartesian(DoubleDouble xCenter, DoubleDouble yCenter,
+            double planeWidth, PixelToDoubleCartesian relative) {
+        this.xCenter = xCenter;
+        this.yCenter = yCenter;
+        this.planeWidth = planeWidth;
+        this.relative = relative;
+    }
+
+    /**
+     * Create a new instance of PixelToDoubleDoubleCartesian from the center
+     * coordinate and the width of the graph shown on image (maxX - minX).
+     *
+     * @param xCenter The x-coordinate of the center of the plane.
+     * @param yCenter The y-coordinate of the center of the plane.
+     * @param planeWidth The width of the plane.
+     * @param width Width of the image the fractal is being rendered in.
+     * @param height Height of the image the fractal is being rendered in.
+     * @return New instance of PixelToDoubleDoubleCartesian.
+     */
+    public static PixelToDoubleDoubleCartesian createFromCenterPlaneWidth(DoubleDouble xCenter,
+            DoubleDouble yCenter, double planeWidth, int width, int height) {
+        PixelToDoubleCartesian relative = PixelToDoubleCartesian
+                .createFromCenterPlaneWidth(0.0, 0.0, planeWidth, width, height);
+        return new PixelToDoubleDoubleCartesian(xCenter, yCenter, planeWidth, relative);
+    }
+
+    /**
+     * Get the x-coordinate of the center of the plane.
+     *
+     * @return The x-coordinate of the center.
+     */
+    public DoubleDouble getXCenter() {
+        return xCenter;
+    }
+
+    /**
+     * Get the y-coordinate of the center of the plane.
+     *
+     * @return The y-coordinate of the center.
+     */
+    public DoubleDouble getYCenter() {
+        return yCenter;
+    }
+
+    /**
+     * Get the width of the plane.
+     *
+     * @return The width of the plane.
+     */
+    public double getPlaneWidth() {
+        return planeWidth;
+    }
+
+    /**
+     * Get a double precision converter for the offsets of pixels from the
+     * center of the plane.
+     *
+     * @return The converter for offsets.
+     */
+    public PixelToDoubleCartesian toRelativeCartesian() {
+        return relative;
+    }
+
+    @Override
+    public DoubleDouble convertX(DoubleDouble x) {
+        return toPlaneX(x.doubleValue());
+    }
+
+    @Override
+    public DoubleDouble convertY(DoubleDouble y) {
+        return toPlaneY(y.doubleValue());
+    }
+
+    /**
+     * Converts a pixel x-coordinate to the x-coordinate on the plane.
+     *
+     * @param x The x-coordinate of the pixel.
+     * @return The x-coordinate on the plane.
+     */
+    public DoubleDouble toPlaneX(double x) {
+        return xCenter.add(relative.toPlaneX(x));
+    }
+
+    /**
+     * Converts a pixel y-coordinate to the y-coordinate on the plane.
+     *
+     * @param y The y-coordinate of the pixel.
+     * @return The y-coordinate on the plane.
+     */
+    public DoubleDouble toPlaneY(double y) {
+        return yCenter.add(relative.toPlaneY(y));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.graph;
+
+import com.mandelbrot.FloatExp;
+
+/**
+ * Converts image-space coordinates to their equivalent positions in the
+ * Cartesian plane using extended exponent arithmetic.
+ * <p>
+ * This is the {@link FloatExp} counterpart of {@link PixelToDoubleCartesian},
+ * for planes so small that the length each pixel represents underflows a
+ * double. It is normally used for the offsets of pixels from the center of a
+ * deep zoom, which are then iterated with perturbation.
+ * </p>
+ * <p>
+ * Renderers work in doubles, so {@link #toScaledCartesian()} gives an
+ * equivalent {@link PixelToDoubleCartesian} in units of
+ * {@code 2^getScaleExponent()}, in which a pixel is about one unit long.
+ * Instances of this class are immutable.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class PixelToFloatExpCartesian implements ConvertCoordinate<FloatExp, FloatExp> {
+
+    /**
+     * The smallest value of the x-axis on the image.
+     */
+    private final FloatExp minX;
+    /**
+     * The smallest value of the y-axis on the image.
+     */
+    private final FloatExp minY;
+    /**
+     * The length of the x-axis that each pixel represents.
+     */
+    private final FloatExp xPlanePerPixel;
+    /**
+     * The length of the y-axis the that each pixel represents.
+     */
+    private final FloatExp yPlanePerPixel;
+    /**
+     * The width of the image, less one.
+     */
+    private final double width;
+    /**
+     * The height of the image, less one.
+     */
+    private final double height;
+
+    /**
+     * Create new instance of PixelToFloatExpCartesian.
+     *
+     * @param minX The smallest value of the x-axis on the image.
+     * @param minY The smallest value of the y-axis on the image.
+     * @param xPlanePerPixel The length of the x-axis that each pixel
+     * represents.
+     * @param yPlanePerPixel The length of the y-axis the that each pixel
+     * represents.
+     * @param width The width of the image, less one.
+     * @param height The height of the image, less one.
+     */
+    private PixelToFloatExpCartesian(FloatExp minX, FloatExp minY, FloatExp xPlanePerPixel,
+            FloatExp yPlanePerPixel, double width, double height) {
+        this.minX = minX;
+        this.minY = minY;
+        this.xPlanePerPixel = xPlanePerPixel;
+        this.yPlanePerPixel = yPlanePerPixel;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Create a new instance of PixelToFloatExpCartesian from the center
+     * coordinate and the width of the graph shown on image (maxX - minX).
+     *
+     * @param xCenter The x-coordinate of the center of the plane.
+     * @param yCenter The y-coordinate of the center of the plane.
+     * @param planeWidth The width of the plane.
+     * @param width Width of the image the fractal is being rendered in.
+     * @param height Height of the image the fractal is being rendered in.
+     * @return New instance of PixelToFloatExpCartesian.
+     */
+    public static PixelToFloatExpCartesian createFromCenterPlaneWidth(FloatExp xCenter,
+            FloatExp yCenter, FloatExp planeWidth, int width, int height) {
+        //Image pixels are 1 less than the outside Cartesian axis.
+        double widthDouble = width - 1;
+        double heightDouble = height - 1;
+        FloatExp planeHeight = planeWidth.multiply(heightDouble / widthDouble);
+
+        FloatExp minX = xCenter.subtract(planeWidth.divide(2.0));
+        FloatExp xPlanePerPixel = planeWidth.divide(widthDouble);
+
+        FloatExp minY = yCenter.subtract(planeHeight.divide(2.0));
+        FloatExp yPlanePerPixel = planeHeight.divide(heightDouble);
+
+        return new PixelToFloatExpCartesian(minX, minY, xPlanePerPixel, yPlanePerPixel,
+                widthDouble, heightDouble);
+    }
+
+    /**
+     * Get the length of the x-axis that each pixel represents.
+     *
+     * @return The length of the x-axis that each pixel represents.
+     */
+    public FloatExp getXPlanePerPixel() {
+        return xPlanePerPixel;
+    }
+
+    /**
+     * Get the length of the y-axis that each pixel represents.
+     *
+     * @return The length of the y-axis that each pixel represents.
+     */
+    public FloatExp getYPlanePerPixel() {
+        return yPlanePerPixel;
+    }
+
+    /**
+     * Get the binary exponent of the unit used by {@link #toScaledCartesian()},
+     * the exponent of the length each pixel represents.
+     *
+     * @return The scale exponent.
+     */
+    public long getScaleExponent() {
+        return xPlanePerPixel.getExponent();
+    }
+
+    /**
+     * Create a double precision converter for the same plane, with coordinates
+     * in units of {@code 2^getScaleExponent()}.
+     *
+     * @return New instance of PixelToDoubleCartesian for the scaled plane.
+     */
+    public PixelToDoubleCartesian toScaledCartesian() {
+        long shift = -getScaleExponent();
+        double scaledMinX = minX.scalb(shift).toDouble();
+        double scaledMinY = minY.scalb(shift).toDouble();
+        double scaledMaxX = minX.add(xPlanePerPixel.multiply(width)).scalb(shift).toDouble();
+        double scaledMaxY = minY.add(yPlanePerPixel.multiply(height)).scalb(shift).toDouble();
+
+        return PixelToDoubleCartesian.createFromMinMax(scaledMinX, scaledMaxX,
+                scaledMinY, scaledMaxY, (int) width + 1, (int) height + 1);
+    }
+
+    @Override
+    public FloatExp convertX(FloatExp x) {
+        return minX.add(x.multiply(xPlanePerPixel));
+    }
+
+    @Override
+    public FloatExp convertY(FloatExp y) {
+        return minY.add(FloatExp.valueOf(height).subtract(y).multiply(yPlanePerPixel));
+    }
+
+    /**
+     * Converts a pixel x-coordinate to the x-coordinate on the plane.
+     *
+     * @param x The x-coordinate of the pixel.
+     * @return The x-coordinate on the plane.
+     */
+    public FloatExp toPlaneX(double x) {
+        return minX.add(xPlanePerPixel.multiply(x));
+    }
+
+    /**
+     * Converts a pixel y-coordinate to the y-coordinate on the plane.
+     *
+     * @param y The y-coordinate of the pixel.
+     * @return The y-coordinate on the plane.
+     */
+    public FloatExp toPlaneY(double y) {
+        return minY.add(yPlanePerPixel.multiply(height - y));
+    }
+}
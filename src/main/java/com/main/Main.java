@@ -23,7 +23,10 @@
 package com.main;
 
 import com.gradient.GradientException;
+import com.mandelbrot.FloatExp;
+import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
 import com.render.VideoCreator;
 
 /**
@@ -37,6 +40,17 @@ import com.render.VideoCreator;
  * Before running this application, ensure the image frames have been generated
  * and that FFmpeg is installed and accessible at the expected path.
  * </p>
+ * <p>
+ * To render on several processes or machines, start any number of workers
+ * with {@code worker <jobDir>} and one coordinator with
+ * {@code coordinator <jobDir>} on a shared directory. Workers share the frames
+ * between them, see {@link SaveToFolder#work(File)}, and the coordinator
+ * assembles the video once every frame is done.
+ * </p>
+ * <p>
+ * {@code poster <file> <width> <height> <planeWidth>} renders a single large
+ * image instead, resuming from its journal if a previous run was interrupted.
+ * </p>
  *
  * @author George Miller
  * @version 1.0, 2025-06-10
@@ -46,11 +60,24 @@ public class Main {
     /**
      * Main method for launching Mandelbrot video creation.
      *
-     * @param args Command-line arguments (not used).
+     * @param args Command-line arguments, {@code worker <jobDir>},
+     * {@code coordinator <jobDir>} or
+     * {@code poster <file> <width> <height> <planeWidth>}, or none.
      * @throws IOException If an I/O error occurs during frame reading or FFmpeg execution.
      * @throws GradientException If a gradient-related error occurs (not expected in this step).
+     * @throws InterruptedException If interrupted while waiting for workers.
      */
-    public static void main(String[] args) throws IOException, GradientException {
-        VideoCreator.createVideoFromFrames("C:/Test/Mandelbrot", "C:/Test/Mandelbrot.mp4", 10, 612);
+    public static void main(String[] args) throws IOException, GradientException,
+            InterruptedException {
+        if (args.length == 2 && args[0].equals("worker")) {
+            SaveToFolder.work(new File(args[1]));
+        } else if (args.length == 2 && args[0].equals("coordinator")) {
+            SaveToFolder.coordinate(new File(args[1]));
+        } else if (args.length == 5 && args[0].equals("poster")) {
+            SaveToFolder.savePoster(new File(args[1]), Integer.parseInt(args[2]),
+                    Integer.parseInt(args[3]), FloatExp.valueOf(new BigDecimal(args[4])));
+        } else {
+            VideoCreator.createVideoFromFrames("C:/Test/Mandelbrot", "C:/Test/Mandelbrot.mp4", 10, 612);
+        }
     }
 }
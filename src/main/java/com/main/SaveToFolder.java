@@ -25,14 +25,27 @@ import com.gradient.Gradient;
 import com.gradient.GradientEntry;
 import com.gradient.GradientException;
 import com.gradient.SmoothGradient;
-import com.graph.PixelToDoubleCartesian;
-import com.render.AntiAliasing;
+import com.mandelbrot.FloatExp;
+import com.render.AdaptiveAntiAliasing;
+import com.render.AsyncPngWriter;
+import com.render.FrameLeaseQueue;
+import com.render.FrameRenderer;
+import com.render.IterationMap;
+import com.render.IterationMapFile;
+import com.render.KeyframeZoom;
 import com.render.MandelbrotColoring;
+import com.render.PrecisionSelector;
+import com.render.ReconstructionFilter;
+import com.render.TileJournal;
+import com.render.VideoCreator;
+import com.render.VideoStream;
+import com.render.ZoomScheduler;
 import com.utils.ColorUtils;
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import javax.imageio.ImageIO;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Arrays;
 
 /**
  * Generates and saves a sequence of Mandelbrot zoom images to a specified
@@ -41,7 +54,11 @@ import javax.imageio.ImageIO;
  * This class creates a zoom animation by repeatedly rendering the Mandelbrot
  * set at increasingly higher magnification levels. Each frame is rendered using
  * anti-aliasing and a smooth gradient coloring scheme. Images are saved as PNG
- * files with sequential filenames.
+ * files with sequential filenames. Each frame is rendered with the first
+ * arithmetic that resolves its pixels, chosen by a
+ * {@link PrecisionSelector}, so the zoom can go on past the limits of double
+ * precision. Frames don't depend on each other, so a {@link ZoomScheduler}
+ * renders several at once, deepest first.
  * </p>
  * <p>
  * Users can configure parameters such as zoom factor, image size, color
@@ -54,6 +71,37 @@ import javax.imageio.ImageIO;
  */
 public class SaveToFolder {
 
+    /**
+     * The number of frames in the zoom sequence.
+     */
+    private static final int TOTAL_FRAMES = 1000;
+    /**
+     * The frame rate of the assembled video.
+     */
+    private static final int FRAME_RATE = 10;
+    /**
+     * The x-coordinate of the point the sequence zooms into.
+     */
+    private static final BigDecimal X_CENTER = new BigDecimal("-0.743643887037158704752191506114774");
+    /**
+     * The y-coordinate of the point the sequence zooms into.
+     */
+    private static final BigDecimal Y_CENTER = new BigDecimal("0.131825904205311970493132056385139");
+    /**
+     * The colors of the gradient, from its start to its end.
+     */
+    private static final int[] GRADIENT_COLORS = {ColorUtils.toRGB(0, 8, 106),
+        ColorUtils.toRGB(55, 139, 218), ColorUtils.toRGB(246, 251, 225),
+        ColorUtils.toRGB(253, 160, 0), ColorUtils.toRGB(0, 8, 106)};
+    /**
+     * The index in the gradient of each of its colors.
+     */
+    private static final double[] GRADIENT_INDEXES = {0.0, 0.25, 0.5, 0.75, 1.0};
+    /**
+     * True if images show how the pixels in the set were found.
+     */
+    private static final boolean SHOW_TYPE = false;
+
     /**
      * Renders and saves a sequence of Mandelbrot set images to disk, creating a
      * zoom animation.
@@ -71,66 +119,287 @@ public class SaveToFolder {
      * encountered.
      */
     public static void save() throws IOException, GradientException {
+        save(new File("C:/Test/Mandelbrot/"), false);
+    }
+
+    /**
+     * Renders frames of the zoom sequence as one of several workers sharing a
+     * job directory, possibly on different machines. Frames are claimed
+     * through a {@link FrameLeaseQueue} in the directory, so a frame is only
+     * rendered again if its worker crashes. Returns once every frame is done.
+     *
+     * @param jobDir The directory shared by the workers.
+     * @throws IOException If an error occurs while writing image files to disk.
+     * @throws GradientException If an invalid gradient configuration is
+     * encountered.
+     */
+    public static void work(File jobDir) throws IOException, GradientException {
+        save(jobDir, true);
+    }
+
+    /**
+     * Waits for the workers of a job directory to render every frame, then
+     * assembles the frames into a video in the same directory.
+     *
+     * @param jobDir The directory shared by the workers.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public static void coordinate(File jobDir) throws InterruptedException {
+        jobDir.mkdirs();
+        System.out.printf("Waiting for workers to render %d frames in %s...\n", TOTAL_FRAMES, jobDir);
+
+        int done;
+        while ((done = countFrames(jobDir)) < TOTAL_FRAMES) {
+            System.out.printf("%d/%d frames done\n", done, TOTAL_FRAMES);
+            Thread.sleep(10000);
+        }
+
+        VideoCreator.createVideoFromFrames(jobDir.getPath(),
+                new File(jobDir, "Mandelbrot.mp4").getPath(), FRAME_RATE, TOTAL_FRAMES);
+    }
+
+    /**
+     * Renders a single large image at the center of the zoom and saves it as
+     * a PNG file.
+     * <p>
+     * Posters take hours, so finished tiles are logged to a
+     * {@link TileJournal} next to the image. If the render is interrupted,
+     * running it again with the same settings only renders the missing tiles.
+     * The journal is deleted once the image is saved.
+     * </p>
+     *
+     * @param imageFile The file the image is saved to.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param planeWidth The width of the plane shown.
+     * @throws IOException If an error occurs while writing the image or the
+     * journal.
+     * @throws GradientException If an invalid gradient configuration is
+     * encountered.
+     */
+    public static void savePoster(File imageFile, int width, int height, FloatExp planeWidth)
+            throws IOException, GradientException {
+        if (imageFile.exists()) {
+            System.out.printf("Skipping %s (already exists)\n", imageFile);
+            return;
+        }
+
+        int maxIteration = 50000;
+        int aaFactor = 3;
+        ReconstructionFilter filter = ReconstructionFilter.TENT;
+        double bailout = 10.0;
+        double multiplier = 5000.0;
+        MandelbrotColoring coloring = createColoring(bailout, multiplier);
+
+        FrameRenderer renderer = new FrameRenderer();
+        PrecisionSelector.Frame setup = new PrecisionSelector().createFrame(X_CENTER, Y_CENTER,
+                planeWidth, width, height, aaFactor, maxIteration, bailout);
+        long signature = TileJournal.signature(X_CENTER, Y_CENTER, planeWidth, width, height,
+                maxIteration, aaFactor, filter, bailout, multiplier,
+                Arrays.toString(GRADIENT_COLORS), Arrays.toString(GRADIENT_INDEXES), SHOW_TYPE,
+                renderer.getTileSize(), setup.getTier());
+
+        Path journalFile = imageFile.toPath().resolveSibling(imageFile.getName() + ".journal");
+        try (TileJournal journal = TileJournal.open(journalFile, width, height, signature)) {
+            System.out.printf("Rendering %dx%d poster (width = %s, %s precision, %d tiles done)...\n",
+                    width, height, planeWidth, setup.getTier(), journal.getFinishedTiles());
+            int[] pixels = renderer.renderSupersampled(setup.getProcessor(), width, height,
+                    coloring, maxIteration, bailout, aaFactor, filter, setup.getConverter(), journal);
+
+            try (AsyncPngWriter pngWriter = new AsyncPngWriter(1, 0,
+                    AsyncPngWriter.DEFAULT_DEFLATE_LEVEL)) {
+                pngWriter.write(pixels, width, height, imageFile);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while writing poster", ex);
+            }
+            journal.delete();
+        }
+
+        System.out.println("Done!");
+    }
+
+    /**
+     * Renders and saves the zoom sequence.
+     *
+     * @param outputDir The folder the frames are saved to.
+     * @param worker True to share the frames with other workers through the
+     * output folder.
+     * @throws IOException If an error occurs while writing image files to disk.
+     * @throws GradientException If an invalid gradient configuration is
+     * encountered.
+     */
+    private static void save(File outputDir, boolean worker) throws IOException, GradientException {
         System.out.println("Generating Mandelbrot zoom sequence...");
 
         int width = 800;
         int height = 600;
 
-        double xCenter = -0.743643887037158704752191506114774;
-        double yCenter = 0.131825904205311970493132056385139;
-        double planeWidth = 4.0;
-
-        int totalFrames = 1000;
         double zoomFactor = 0.95;
         int maxIteration = 50000;
         int aaFactor = 3;
-
-        Gradient gradient = new SmoothGradient();
-        gradient.addColor(GradientEntry.createFirstEntry(ColorUtils.toRGB(0, 8, 106)));
-        gradient.addColor(GradientEntry.createEntry(ColorUtils.toRGB(55, 139, 218), 0.25));
-        gradient.addColor(GradientEntry.createEntry(ColorUtils.toRGB(246, 251, 225), 0.5));
-        gradient.addColor(GradientEntry.createEntry(ColorUtils.toRGB(253, 160, 0), 0.75));
-        gradient.addColor(GradientEntry.createFinalEntry(ColorUtils.toRGB(0, 8, 106)));
+        boolean archiveIterations = false; // keep each frame's iteration map to recolor later
+        boolean streamVideo = false; // encode frames straight into a video instead of PNGs
+        boolean useKeyframes = false; // synthesize frames from keyframes at each halving of width
+        boolean adaptiveAntiAliasing = false; // supersample only the pixels at edges
+        int frameWorkers = 2; // frames rendered at once, each in parallel itself
+        int encoderThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        int deflateLevel = AsyncPngWriter.DEFAULT_DEFLATE_LEVEL;
 
         double bailout = 10.0;
         double multiplier = 5000.0;
-        MandelbrotColoring coloring = new MandelbrotColoring(bailout, gradient, false, multiplier);
+        MandelbrotColoring coloring = createColoring(bailout, multiplier);
 
-        File outputDir = new File("C:/Test/Mandelbrot/");
         if (!outputDir.exists()) {
             outputDir.mkdirs();
         }
 
-        for (int frame = 1; frame <= totalFrames; frame++) {
-            String filename = String.format("C:/Test/Mandelbrot/frame_%04d.png", frame);
-            File imageFile = new File(filename);
+        FrameRenderer renderer = new FrameRenderer();
+        AdaptiveAntiAliasing adaptive = adaptiveAntiAliasing ? new AdaptiveAntiAliasing(aaFactor) : null;
+        PrecisionSelector selector = new PrecisionSelector();
+        ZoomScheduler scheduler = new ZoomScheduler(FloatExp.valueOf(4.0), zoomFactor,
+                TOTAL_FRAMES, frame -> maxIteration);
+        // Workers only write PNGs, in whatever order they claim frames
+        VideoStream video = streamVideo && !worker
+                ? new VideoStream("C:/Test/Mandelbrot.mp4", width, height, FRAME_RATE) : null;
+        AsyncPngWriter pngWriter = video != null
+                ? null : new AsyncPngWriter(encoderThreads, encoderThreads, deflateLevel);
+        KeyframeZoom keyframes = !useKeyframes || worker ? null : new KeyframeZoom(FloatExp.valueOf(4.0),
+                width, height, (index, planeWidth, keyWidth, keyHeight) -> {
+                    System.out.printf("Rendering keyframe %d (width = %s)...\n", index, planeWidth);
+                    PrecisionSelector.Frame setup = selector.createFrame(X_CENTER, Y_CENTER,
+                            planeWidth, keyWidth, keyHeight, aaFactor, maxIteration, bailout);
+                    return adaptive != null
+                            ? adaptive.render(setup.getProcessor(), keyWidth, keyHeight, coloring,
+                                    maxIteration, bailout, setup.getConverter())
+                            : renderer.renderAntiAliased(setup.getProcessor(), keyWidth, keyHeight,
+                                    coloring, maxIteration, bailout, aaFactor, setup.getConverter());
+                });
 
-            if (imageFile.exists()) {
-                System.out.printf("Skipping frame %d (already exists)\n", frame);
-                planeWidth *= zoomFactor; // still zoom in even if skipping
-                continue;
-            }
+        ZoomScheduler.FrameTask renderFrame = (frame, planeWidth) -> {
+            int[] pixels;
+            if (keyframes != null) {
+                System.out.printf("Creating frame %d/%d (width = %s)...\n", frame, TOTAL_FRAMES,
+                        planeWidth);
+                pixels = keyframes.createFrame(planeWidth);
+            } else {
+                PrecisionSelector.Frame setup = selector.createFrame(X_CENTER, Y_CENTER, planeWidth,
+                        width, height, aaFactor, maxIteration, bailout);
+                System.out.printf("Rendering frame %d/%d (width = %s, %s precision)...\n", frame,
+                        TOTAL_FRAMES, planeWidth, setup.getTier());
 
-            System.out.printf("Rendering frame %d/%d (width = %.10f)...\n", frame, totalFrames, planeWidth);
+                if (archiveIterations) {
+                    IterationMap map = renderer.renderIterations(setup.getProcessor(), width, height,
+                            maxIteration, bailout, aaFactor, setup.getConverter());
+                    IterationMapFile.write(new File(outputDir, String.format("frame_%04d.mim", frame)).toPath(),
+                            map, setup.getConverter(), maxIteration, bailout);
+                    pixels = renderer.colorize(map, coloring);
+                } else if (adaptive != null) {
+                    pixels = adaptive.render(setup.getProcessor(), width, height, coloring,
+                            maxIteration, bailout, setup.getConverter());
+                } else {
+                    pixels = renderer.renderAntiAliased(setup.getProcessor(), width, height, coloring,
+                            maxIteration, bailout, aaFactor, setup.getConverter());
+                }
+            }
 
-            PixelToDoubleCartesian convert = PixelToDoubleCartesian
-                    .createFromCenterPlaneWidth(xCenter, yCenter, planeWidth, width, height);
+            if (video != null) {
+                video.writeFrame(pixels);
+            } else {
+                // Encoded in the background while the next frame renders
+                pngWriter.write(pixels, width, height, frameFile(outputDir, frame));
+            }
+        };
 
-            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    int color = AntiAliasing.antiAliasedRenderingDouble(
-                            x, y, coloring, maxIteration, bailout, aaFactor, convert);
-                    image.setRGB(x, y, color);
+        try {
+            if (video != null || keyframes != null) {
+                // A video needs its frames in order, keyframes are reused by the frames that follow
+                for (int frame = 1; frame <= TOTAL_FRAMES; frame++) {
+                    if (video == null && frameFile(outputDir, frame).exists()) {
+                        System.out.printf("Skipping frame %d (already exists)\n", frame);
+                    } else {
+                        renderFrame.render(frame, scheduler.getPlaneWidth(frame));
+                    }
                 }
+            } else if (worker) {
+                // Leases are held until the frames are written
+                try (FrameLeaseQueue queue = new FrameLeaseQueue(outputDir.toPath(),
+                        scheduler.getFramesByCost(), frame -> frameFile(outputDir, frame).exists())) {
+                    scheduler.run(frameWorkers, queue::claim, (frame, planeWidth) -> {
+                        try {
+                            renderFrame.render(frame, planeWidth);
+                        } catch (IOException | InterruptedException | RuntimeException ex) {
+                            queue.release(frame);
+                            throw ex;
+                        }
+                    });
+                    pngWriter.close();
+                }
+            } else {
+                scheduler.run(frameWorkers, frame -> frameFile(outputDir, frame).exists(), renderFrame);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering frames", ex);
+        } finally {
+            if (video != null) {
+                video.close();
             }
+            if (pngWriter != null) {
+                pngWriter.close();
+            }
+        }
 
-            ImageIO.write(image, "png", imageFile);
+        System.out.println("Done!");
+    }
 
-            planeWidth *= zoomFactor;
+    /**
+     * Create the coloring used for every image.
+     *
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param multiplier The multiplier of the coloring.
+     * @return The coloring.
+     * @throws GradientException If an invalid gradient configuration is
+     * encountered.
+     */
+    private static MandelbrotColoring createColoring(double bailout, double multiplier)
+            throws GradientException {
+        int last = GRADIENT_COLORS.length - 1;
+        Gradient gradient = new SmoothGradient();
+        gradient.addColor(GradientEntry.createFirstEntry(GRADIENT_COLORS[0]));
+        for (int i = 1; i < last; i++) {
+            gradient.addColor(GradientEntry.createEntry(GRADIENT_COLORS[i], GRADIENT_INDEXES[i]));
         }
+        gradient.addColor(GradientEntry.createFinalEntry(GRADIENT_COLORS[last]));
 
-        System.out.println("Done!");
+        return new MandelbrotColoring(bailout, gradient, SHOW_TYPE, multiplier);
+    }
+
+    /**
+     * Get the file a frame is saved to.
+     *
+     * @param outputDir The folder the frames are saved to.
+     * @param frame The index of the frame, from 1.
+     * @return The file of the frame.
+     */
+    private static File frameFile(File outputDir, int frame) {
+        return new File(outputDir, String.format("frame_%04d.png", frame));
+    }
+
+    /**
+     * Count the frames of the sequence saved in a folder.
+     *
+     * @param outputDir The folder the frames are saved to.
+     * @return The number of frames saved.
+     */
+    private static int countFrames(File outputDir) {
+        int count = 0;
+        for (int frame = 1; frame <= TOTAL_FRAMES; frame++) {
+            if (frameFile(outputDir, frame).exists()) {
+                count++;
+            }
+        }
+        return count;
     }
 
 }
@@ -0,0 +1,256 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.mandelbrot;
+
+/**
+ * Table of bilinear approximations used to skip iterations along a reference
+ * orbit.
+ * <p>
+ * While the offset {@code dz} from the reference orbit is small, the
+ * perturbation step {@code dz' = 2 * Z * dz + dz * dz + dc} is dominated by its
+ * linear terms, so {@code l} steps starting at reference iteration {@code m}
+ * collapse to {@code dz' = A * dz + B * dc}. Each approximation stores the
+ * complex coefficients {@code A} and {@code B}, and the radius {@code R} that
+ * {@code |dz|} must stay below for it to be accurate to double precision.
+ * </p>
+ * <p>
+ * Level 0 holds single steps. Each level above merges neighbouring pairs of the
+ * level below, doubling the number of steps skipped, so a pixel can jump
+ * thousands of iterations in a handful of lookups. Entries at level
+ * {@code l} start at iterations {@code m} where {@code (m - 1)} is a multiple of
+ * {@code 2^l}. The radii account for the largest {@code |dc|} in the frame,
+ * so a table is only valid for the frame it was built for. Instances are
+ * immutable and can be shared by rendering threads.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class BilinearApproximationTable {
+
+    /**
+     * Relative error allowed for the dropped quadratic term, the precision of
+     * a double mantissa.
+     */
+    private static final double EPSILON = 0x1.0p-53;
+    /**
+     * The x-components of the A coefficients, per level.
+     */
+    private final double[][] ax;
+    /**
+     * The y-components of the A coefficients, per level.
+     */
+    private final double[][] ay;
+    /**
+     * The x-components of the B coefficients, per level.
+     */
+    private final double[][] bx;
+    /**
+     * The y-components of the B coefficients, per level.
+     */
+    private final double[][] by;
+    /**
+     * The squared validity radii, per level.
+     */
+    private final double[][] radius2;
+    /**
+     * The largest squared validity radius of any approximation, offsets
+     * beyond it never need a lookup.
+     */
+    private double maxRadius2;
+
+    /**
+     * Build the table of approximations for a reference orbit.
+     *
+     * @param reference The orbit of the reference point.
+     * @param maxOffset The largest distance of any point in the frame from the
+     * reference point.
+     */
+    public BilinearApproximationTable(ReferenceOrbit reference, double maxOffset) {
+        // Single steps from iteration m to m + 1, for m = 1 .. length - 2
+        int count = Math.max(reference.getLength() - 2, 0);
+        int levels = 1;
+        while ((count >> levels) > 0) {
+            levels++;
+        } //w
+
+        ax = new double[levels][];
+        ay = new double[levels][];
+        bx = new double[levels][];
+        by = new double[levels][];
+        radius2 = new double[levels][];
+
+        double[] stepAX = new double[count];
+        double[] stepAY = new double[count];
+        double[] stepBX = new double[count];
+        double[] stepBY = new double[count];
+        double[] stepR = new double[count];
+        for (int k = 0; k < count; k++) {
+            double zx = reference.getX(k + 1);
+            double zy = reference.getY(k + 1);
+            double a = 2.0 * Math.sqrt(zx * zx + zy * zy);
+
+            stepAX[k] = 2.0 * zx;
+            stepAY[k] = 2.0 * zy;
+            stepBX[k] = 1.0;
+            stepBY[k] = 0.0;
+            stepR[k] = Math.max(0.0, (EPSILON * a - maxOffset) / (a + 1.0));
+        } //f
+        store(0, stepAX, stepAY, stepBX, stepBY, stepR);
+
+        double[] r = stepR;
+        for (int level = 1; level < levels; level++) {
+            double[] lowAX = ax[level - 1], lowAY = ay[level - 1];
+            double[] lowBX = bx[level - 1], lowBY = by[level - 1];
+            int merged = lowAX.length / 2;
+
+            double[] mergedAX = new double[merged];
+            double[] mergedAY = new double[merged];
+            double[] mergedBX = new double[merged];
+            double[] mergedBY = new double[merged];
+            double[] mergedR = new double[merged];
+            for (int k = 0; k < merged; k++) {
+                int first = 2 * k;
+                int second = first + 1;
+
+                // Apply the first approximation, then the second:
+                // A = A2 * A1, B = A2 * B1 + B2
+                double a1x = lowAX[first], a1y = lowAY[first];
+                double b1x = lowBX[first], b1y = lowBY[first];
+                double a2x = lowAX[second], a2y = lowAY[second];
+                mergedAX[k] = a2x * a1x - a2y * a1y;
+                mergedAY[k] = a2x * a1y + a2y * a1x;
+                mergedBX[k] = a2x * b1x - a2y * b1y + lowBX[second];
+                mergedBY[k] = a2x * b1y + a2y * b1x + lowBY[second];
+
+                // dz must stay valid for the first, and land valid for the second
+                double a1 = Math.sqrt(a1x * a1x + a1y * a1y);
+                double b1 = Math.sqrt(b1x * b1x + b1y * b1y);
+                double secondR = a1 == 0.0 ? 0.0
+                        : Math.max(0.0, (r[second] - b1 * maxOffset) / a1);
+                mergedR[k] = Math.min(r[first], secondR);
+            } //f
+            store(level, mergedAX, mergedAY, mergedBX, mergedBY, mergedR);
+            r = mergedR;
+        } //f
+    }
+
+    /**
+     * Find the approximation skipping the most iterations that is valid for an
+     * offset at a position along the reference orbit.
+     *
+     * @param iteration The position along the reference orbit.
+     * @param offsetRadius The squared length of the offset from the reference
+     * orbit.
+     * @param maxSteps The largest number of iterations that may be skipped.
+     * @return The level of the approximation, it skips {@code 2^level}
+     * iterations, or -1 if there is none.
+     */
+    public int findLevel(int iteration, double offsetRadius, int maxSteps) {
+        if (iteration < 1 || offsetRadius >= maxRadius2) {
+            return -1;
+        } //i
+
+        int position = iteration - 1;
+        // Only levels whose entries start at this position, highest first
+        int level = Math.min(Integer.numberOfTrailingZeros(position), ax.length - 1);
+        for (; level >= 0; level--) {
+            int index = position >> level;
+            if (index < ax[level].length && (1 << level) <= maxSteps
+                    && offsetRadius < radius2[level][index]) {
+                return level;
+            } //i
+        } //f
+
+        return -1;
+    }
+
+    /**
+     * Get the x-component of the A coefficient of an approximation.
+     *
+     * @param level The level of the approximation.
+     * @param iteration The position along the reference orbit it starts at.
+     * @return The x-component of A.
+     */
+    public double getAX(int level, int iteration) {
+        return ax[level][(iteration - 1) >> level];
+    }
+
+    /**
+     * Get the y-component of the A coefficient of an approximation.
+     *
+     * @param level The level of the approximation.
+     * @param iteration The position along the reference orbit it starts at.
+     * @return The y-component of A.
+     */
+    public double getAY(int level, int iteration) {
+        return ay[level][(iteration - 1) >> level];
+    }
+
+    /**
+     * Get the x-component of the B coefficient of an approximation.
+     *
+     * @param level The level of the approximation.
+     * @param iteration The position along the reference orbit it starts at.
+     * @return The x-component of B.
+     */
+    public double getBX(int level, int iteration) {
+        return bx[level][(iteration - 1) >> level];
+    }
+
+    /**
+     * Get the y-component of the B coefficient of an approximation.
+     *
+     * @param level The level of the approximation.
+     * @param iteration The position along the reference orbit it starts at.
+     * @return The y-component of B.
+     */
+    public double getBY(int level, int iteration) {
+        return by[level][(iteration - 1) >> level];
+    }
+
+    /**
+     * Store the approximations of one level, squaring their radii.
+     *
+     * @param level The level.
+     * @param levelAX The x-components of the A coefficients.
+     * @param levelAY The y-components of the A coefficients.
+     * @param levelBX The x-components of the B coefficients.
+     * @param levelBY The y-components of the B coefficients.
+     * @param levelR The validity radii.
+     */
+    private void store(int level, double[] levelAX, double[] levelAY, double[] levelBX,
+            double[] levelBY, double[] levelR) {
+        double[] squared = new double[levelR.length];
+        for (int k = 0; k < levelR.length; k++) {
+            squared[k] = levelR[k] * levelR[k];
+            maxRadius2 = Math.max(maxRadius2, squared[k]);
+        } //f
+
+        ax[level] = levelAX;
+        ay[level] = levelAY;
+        bx[level] = levelBX;
+        by[level] = levelBY;
+        radius2[level] = squared;
+    }
+}
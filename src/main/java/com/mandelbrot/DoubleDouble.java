@@ -0,0 +1,276 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.mandelbrot;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * A floating point number with about 106 bits of precision, stored as the
+ * unevaluated sum of two doubles.
+ * <p>
+ * The high part is the value rounded to a double and the low part is the
+ * rounding error, so {@code |lo| <= ulp(hi) / 2}. Arithmetic is built from
+ * the error-free transforms TwoSum, which recovers the rounding error of an
+ * addition, and TwoProd, which recovers the rounding error of a product using
+ * {@link Math#fma(double, double, double)}.
+ * </p>
+ * <p>
+ * Instances are immutable. The range is that of a double; only the precision
+ * is extended. Hot loops such as {@link MandelbrotProcessorDoubleDouble} keep
+ * the two parts in local variables instead of creating new instances.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public final class DoubleDouble implements Comparable<DoubleDouble> {
+
+    /**
+     * The number zero.
+     */
+    public static final DoubleDouble ZERO = new DoubleDouble(0.0, 0.0);
+    /**
+     * The value rounded to a double.
+     */
+    private final double hi;
+    /**
+     * The rounding error of the high part.
+     */
+    private final double lo;
+
+    /**
+     * Create new instance of DoubleDouble from normalized parts.
+     *
+     * @param hi The value rounded to a double.
+     * @param lo The rounding error of the high part.
+     */
+    private DoubleDouble(double hi, double lo) {
+        this.hi = hi;
+        this.lo = lo;
+    }
+
+    /**
+     * Create a DoubleDouble equal to the sum of two doubles, which need not be
+     * normalized.
+     *
+     * @param hi The larger part.
+     * @param lo The smaller part.
+     * @return New DoubleDouble equal to {@code hi + lo}.
+     */
+    public static DoubleDouble create(double hi, double lo) {
+        double s = hi + lo;
+        double b = s - hi;
+        return new DoubleDouble(s, (hi - (s - b)) + (lo - b));
+    }
+
+    /**
+     * Create a DoubleDouble equal to a double.
+     *
+     * @param value The value.
+     * @return New DoubleDouble equal to the value.
+     */
+    public static DoubleDouble valueOf(double value) {
+        return new DoubleDouble(value, 0.0);
+    }
+
+    /**
+     * Create a DoubleDouble from a BigDecimal, rounding it to 106 bits.
+     *
+     * @param value The value.
+     * @return New DoubleDouble closest to the value.
+     */
+    public static DoubleDouble valueOf(BigDecimal value) {
+        double hi = value.doubleValue();
+        double lo = value.subtract(new BigDecimal(hi)).doubleValue();
+        return create(hi, lo);
+    }
+
+    /**
+     * Create a DoubleDouble from its decimal string representation.
+     *
+     * @param value The decimal string, in any format {@link BigDecimal}
+     * accepts.
+     * @return New DoubleDouble closest to the value.
+     */
+    public static DoubleDouble valueOf(String value) {
+        return valueOf(new BigDecimal(value));
+    }
+
+    /**
+     * Get the value rounded to a double.
+     *
+     * @return The high part.
+     */
+    public double getHi() {
+        return hi;
+    }
+
+    /**
+     * Get the rounding error of the high part.
+     *
+     * @return The low part.
+     */
+    public double getLo() {
+        return lo;
+    }
+
+    /**
+     * Add a number to this number.
+     *
+     * @param other The number to add.
+     * @return The sum.
+     */
+    public DoubleDouble add(DoubleDouble other) {
+        // TwoSum of both parts, then renormalize
+        double s = hi + other.hi;
+        double b = s - hi;
+        double e = (hi - (s - b)) + (other.hi - b);
+
+        double t = lo + other.lo;
+        b = t - lo;
+        double f = (lo - (t - b)) + (other.lo - b);
+
+        e += t;
+        double h = s + e;
+        e = e - (h - s);
+        e += f;
+        return create(h, e);
+    }
+
+    /**
+     * Add a double to this number.
+     *
+     * @param other The number to add.
+     * @return The sum.
+     */
+    public DoubleDouble add(double other) {
+        return add(valueOf(other));
+    }
+
+    /**
+     * Subtract a number from this number.
+     *
+     * @param other The number to subtract.
+     * @return The difference.
+     */
+    public DoubleDouble subtract(DoubleDouble other) {
+        return add(other.negate());
+    }
+
+    /**
+     * Multiply this number by a number.
+     *
+     * @param other The number to multiply by.
+     * @return The product.
+     */
+    public DoubleDouble multiply(DoubleDouble other) {
+        // TwoProd of the high parts plus the cross terms
+        double p = hi * other.hi;
+        double e = Math.fma(hi, other.hi, -p);
+        e += hi * other.lo + lo * other.hi;
+        return create(p, e);
+    }
+
+    /**
+     * Multiply this number by a double.
+     *
+     * @param factor The number to multiply by.
+     * @return The product.
+     */
+    public DoubleDouble multiply(double factor) {
+        double p = hi * factor;
+        double e = Math.fma(hi, factor, -p);
+        e += lo * factor;
+        return create(p, e);
+    }
+
+    /**
+     * Divide this number by a double.
+     *
+     * @param divisor The number to divide by.
+     * @return The quotient.
+     */
+    public DoubleDouble divide(double divisor) {
+        double q = hi / divisor;
+
+        // Remainder of the first quotient, corrected by a second
+        double p = q * divisor;
+        double e = Math.fma(q, divisor, -p);
+        double r = ((hi - p) - e) + lo;
+        return create(q, r / divisor);
+    }
+
+    /**
+     * Negate this number.
+     *
+     * @return The negated number.
+     */
+    public DoubleDouble negate() {
+        return new DoubleDouble(-hi, -lo);
+    }
+
+    /**
+     * Round this number to a double.
+     *
+     * @return The nearest double.
+     */
+    public double doubleValue() {
+        return hi + lo;
+    }
+
+    /**
+     * Convert this number to a BigDecimal exactly.
+     *
+     * @return The exact value.
+     */
+    public BigDecimal toBigDecimal() {
+        return new BigDecimal(hi).add(new BigDecimal(lo));
+    }
+
+    @Override
+    public int compareTo(DoubleDouble other) {
+        int result = Double.compare(hi, other.hi);
+        return result != 0 ? result : Double.compare(lo, other.lo);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof DoubleDouble)) {
+            return false;
+        } //i
+
+        DoubleDouble number = (DoubleDouble) other;
+        return Double.compare(hi, number.hi) == 0 && Double.compare(lo, number.lo) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(hi) * 31 + Double.hashCode(lo);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().round(new MathContext(32)).toString();
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.mandelbrot;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A floating point number with a double mantissa and a long binary exponent.
+ * <p>
+ * The value is {@code mantissa * 2^exponent}, with the magnitude of the
+ * mantissa kept in {@code [1, 2)}. This keeps the 53 bits of precision of a
+ * double but removes its range limit, so lengths far smaller than
+ * {@code 1e-308} can be represented, which deep zooms need for the size of a
+ * pixel and the offsets of points from a reference.
+ * </p>
+ * <p>
+ * Arithmetic is a handful of double operations and an exponent adjustment.
+ * Instances are immutable; hot loops keep the mantissa and exponent in local
+ * variables instead of creating new instances.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public final class FloatExp implements Comparable<FloatExp> {
+
+    /**
+     * The number zero.
+     */
+    public static final FloatExp ZERO = new FloatExp(0.0, 0L);
+    /**
+     * The number one.
+     */
+    public static final FloatExp ONE = new FloatExp(1.0, 0L);
+    /**
+     * Exponent difference beyond which the smaller operand of an addition
+     * is lost entirely.
+     */
+    private static final long ALIGN_LIMIT = 64;
+    /**
+     * The base 10 logarithm of 2.
+     */
+    private static final double LOG10_2 = Math.log10(2.0);
+    /**
+     * The mantissa, zero or with a magnitude in [1, 2).
+     */
+    private final double mantissa;
+    /**
+     * The binary exponent.
+     */
+    private final long exponent;
+
+    /**
+     * Create new instance of FloatExp from a normalized mantissa and exponent.
+     *
+     * @param mantissa The mantissa, zero or with a magnitude in [1, 2).
+     * @param exponent The binary exponent.
+     */
+    private FloatExp(double mantissa, long exponent) {
+        this.mantissa = mantissa;
+        this.exponent = exponent;
+    }
+
+    /**
+     * Create a FloatExp from any mantissa and exponent, normalizing it.
+     *
+     * @param mantissa The mantissa, any finite double.
+     * @param exponent The binary exponent.
+     * @return New FloatExp equal to {@code mantissa * 2^exponent}.
+     */
+    public static FloatExp create(double mantissa, long exponent) {
+        if (mantissa == 0.0) {
+            return ZERO;
+        } //i
+
+        if (Math.abs(mantissa) < Double.MIN_NORMAL) {
+            // Subnormal, move it into the normal range first
+            mantissa = Math.scalb(mantissa, 64);
+            exponent -= 64;
+        } //i
+
+        int shift = Math.getExponent(mantissa);
+        return new FloatExp(Math.scalb(mantissa, -shift), exponent + shift);
+    }
+
+    /**
+     * Create a FloatExp equal to a double.
+     *
+     * @param value The value.
+     * @return New FloatExp equal to the value.
+     */
+    public static FloatExp valueOf(double value) {
+        return create(value, 0L);
+    }
+
+    /**
+     * Create a FloatExp from a BigDecimal, rounding it to 53 bits.
+     *
+     * @param value The value.
+     * @return New FloatExp closest to the value.
+     */
+    public static FloatExp valueOf(BigDecimal value) {
+        if (value.signum() == 0) {
+            return ZERO;
+        } //i
+
+        // Estimate the binary exponent from the decimal one, then scale the
+        // value into the range of a double exactly with a power of two.
+        long decimalExponent = (long) value.precision() - value.scale() - 1;
+        long shift = (long) Math.floor(decimalExponent / LOG10_2);
+        BigDecimal power = new BigDecimal(BigInteger.ONE.shiftLeft((int) Math.abs(shift)));
+        BigDecimal scaled = shift > 0
+                ? value.divide(power)
+                : value.multiply(power);
+
+        return create(scaled.doubleValue(), shift);
+    }
+
+    /**
+     * Get the mantissa.
+     *
+     * @return The mantissa, zero or with a magnitude in [1, 2).
+     */
+    public double getMantissa() {
+        return mantissa;
+    }
+
+    /**
+     * Get the binary exponent.
+     *
+     * @return The exponent.
+     */
+    public long getExponent() {
+        return exponent;
+    }
+
+    /**
+     * Get the sign of this number.
+     *
+     * @return -1, 0 or 1 as this number is negative, zero or positive.
+     */
+    public int signum() {
+        return (int) Math.signum(mantissa);
+    }
+
+    /**
+     * Add a number to this number.
+     *
+     * @param other The number to add.
+     * @return The sum.
+     */
+    public FloatExp add(FloatExp other) {
+        if (other.mantissa == 0.0) {
+            return this;
+        } //i
+        if (mantissa == 0.0) {
+            return other;
+        } //i
+
+        long difference = exponent - other.exponent;
+        if (difference > ALIGN_LIMIT) {
+            return this;
+        } //i
+        if (difference < -ALIGN_LIMIT) {
+            return other;
+        } //i
+
+        if (difference >= 0) {
+            return create(mantissa + Math.scalb(other.mantissa, (int) -difference), exponent);
+        } //i
+
+        return create(Math.scalb(mantissa, (int) difference) + other.mantissa, other.exponent);
+    }
+
+    /**
+     * Subtract a number from this number.
+     *
+     * @param other The number to subtract.
+     * @return The difference.
+     */
+    public FloatExp subtract(FloatExp other) {
+        return add(other.negate());
+    }
+
+    /**
+     * Multiply this number by a number.
+     *
+     * @param other The number to multiply by.
+     * @return The product.
+     */
+    public FloatExp multiply(FloatExp other) {
+        return create(mantissa * other.mantissa, exponent + other.exponent);
+    }
+
+    /**
+     * Multiply this number by a double.
+     *
+     * @param factor The number to multiply by.
+     * @return The product.
+     */
+    public FloatExp multiply(double factor) {
+        return create(mantissa * factor, exponent);
+    }
+
+    /**
+     * Divide this number by a double.
+     *
+     * @param divisor The number to divide by.
+     * @return The quotient.
+     */
+    public FloatExp divide(double divisor) {
+        return create(mantissa / divisor, exponent);
+    }
+
+    /**
+     * Multiply this number by a power of two.
+     *
+     * @param shift The power of two.
+     * @return This number times {@code 2^shift}.
+     */
+    public FloatExp scalb(long shift) {
+        return mantissa == 0.0 ? ZERO : new FloatExp(mantissa, exponent + shift);
+    }
+
+    /**
+     * Negate this number.
+     *
+     * @return The negated number.
+     */
+    public FloatExp negate() {
+        return mantissa == 0.0 ? ZERO : new FloatExp(-mantissa, exponent);
+    }
+
+    /**
+     * Get the absolute value of this number.
+     *
+     * @return The absolute value.
+     */
+    public FloatExp abs() {
+        return mantissa < 0.0 ? negate() : this;
+    }
+
+    /**
+     * Get the base 2 logarithm of the magnitude of this number.
+     *
+     * @return The logarithm, negative infinity for zero.
+     */
+    public double log2() {
+        if (mantissa == 0.0) {
+            return Double.NEGATIVE_INFINITY;
+        } //i
+
+        return exponent + Math.log(Math.abs(mantissa)) / Math.log(2.0);
+    }
+
+    /**
+     * Round this number to a double, which may overflow to infinity or
+     * underflow to zero.
+     *
+     * @return The nearest double.
+     */
+    public double toDouble() {
+        if (exponent > Double.MAX_EXPONENT) {
+            return mantissa * Double.POSITIVE_INFINITY;
+        } //i
+        if (exponent < Double.MIN_EXPONENT - 64) {
+            return mantissa * 0.0;
+        } //i
+
+        return Math.scalb(mantissa, (int) exponent);
+    }
+
+    @Override
+    public int compareTo(FloatExp other) {
+        return subtract(other).signum();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof FloatExp)) {
+            return false;
+        } //i
+
+        FloatExp number = (FloatExp) other;
+        return Double.compare(mantissa, number.mantissa) == 0 && exponent == number.exponent;
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(mantissa) * 31 + Long.hashCode(exponent);
+    }
+
+    @Override
+    public String toString() {
+        if (mantissa == 0.0) {
+            return "0.0";
+        } //i
+
+        double log10 = log2() * LOG10_2;
+        double decimalExponent = Math.floor(log10);
+        double decimalMantissa = Math.copySign(Math.pow(10.0, log10 - decimalExponent), mantissa);
+        return String.format("%.15fe%d", decimalMantissa, (long) decimalExponent);
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.mandelbrot;
+
+import com.mandelbrot.MandelbrotOutput.HowFound;
+
+/**
+ * Reusable, caller-owned storage for the results of Mandelbrot evaluations.
+ * <p>
+ * This class is the primitive counterpart of {@link MandelbrotOutput}. Instead
+ * of allocating one object per evaluated point, results are written into
+ * parallel primitive arrays at a given index: the iteration count, the final
+ * orbit coordinates and a code describing how the point was found. A single
+ * buffer can be reused for every sample of a pixel, a row, or a whole tile.
+ * The backing arrays are exposed so renderers can consume a whole span of
+ * results directly.
+ * </p>
+ * <p>
+ * Instances are not thread-safe; each rendering thread should own its buffer.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class MandelbrotBuffer {
+
+    /**
+     * All values of HowFound, indexed by their code.
+     */
+    private static final HowFound[] HOW_FOUND = HowFound.values();
+    /**
+     * The number of iterations the algorithm went through for each point.
+     */
+    private final int[] iterations;
+    /**
+     * The x-coordinate of where the orbit ended for each point.
+     */
+    private final double[] x;
+    /**
+     * The y-coordinate of where the orbit ended for each point.
+     */
+    private final double[] y;
+    /**
+     * The ordinal of the HowFound value of each point.
+     */
+    private final byte[] howFound;
+
+    /**
+     * Create new instance of MandelbrotBuffer.
+     *
+     * @param capacity The number of points the buffer can hold.
+     */
+    public MandelbrotBuffer(int capacity) {
+        this.iterations = new int[capacity];
+        this.x = new double[capacity];
+        this.y = new double[capacity];
+        this.howFound = new byte[capacity];
+    }
+
+    /**
+     * Store the result of evaluating a point.
+     *
+     * @param index The index of the point in the buffer.
+     * @param iterations The number of iterations the algorithm went through.
+     * @param x The x-coordinate of where the orbit ended.
+     * @param y The y-coordinate of where the orbit ended.
+     * @param howFound How the point was determined to be in the set, NOT if it
+     * isn't.
+     */
+    public void set(int index, int iterations, double x, double y, HowFound howFound) {
+        this.iterations[index] = iterations;
+        this.x[index] = x;
+        this.y[index] = y;
+        this.howFound[index] = (byte) howFound.ordinal();
+    }
+
+    /**
+     * Get the HowFound value represented by a code stored in the HowFound
+     * array.
+     *
+     * @param code The code of the HowFound value.
+     * @return The HowFound value.
+     */
+    public static HowFound howFoundOf(byte code) {
+        return HOW_FOUND[code];
+    }
+
+    /**
+     * Get the number of points the buffer can hold.
+     *
+     * @return The capacity of the buffer.
+     */
+    public int getCapacity() {
+        return iterations.length;
+    }
+
+    /**
+     * Get the number of iterations the algorithm went through for a point.
+     *
+     * @param index The index of the point in the buffer.
+     * @return The number of iterations.
+     */
+    public int getIterations(int index) {
+        return iterations[index];
+    }
+
+    /**
+     * Get the x-coordinate of where the orbit of a point ended.
+     *
+     * @param index The index of the point in the buffer.
+     * @return The x-coordinate of where the orbit ended.
+     */
+    public double getX(int index) {
+        return x[index];
+    }
+
+    /**
+     * Get the y-coordinate of where the orbit of a point ended.
+     *
+     * @param index The index of the point in the buffer.
+     * @return The y-coordinate of where the orbit ended.
+     */
+    public double getY(int index) {
+        return y[index];
+    }
+
+    /**
+     * Get how a point was determined to be in the set, if it was.
+     *
+     * @param index The index of the point in the buffer.
+     * @return How the point was found.
+     */
+    public HowFound getHowFound(int index) {
+        return HOW_FOUND[howFound[index]];
+    }
+
+    /**
+     * Get the backing array of iteration counts. Changes to the buffer are
+     * visible through the array.
+     *
+     * @return The iteration counts of all points.
+     */
+    public int[] getIterationArray() {
+        return iterations;
+    }
+
+    /**
+     * Get the backing array of the x-coordinates of where the orbits ended.
+     * Changes to the buffer are visible through the array.
+     *
+     * @return The final x-coordinates of all points.
+     */
+    public double[] getXArray() {
+        return x;
+    }
+
+    /**
+     * Get the backing array of the y-coordinates of where the orbits ended.
+     * Changes to the buffer are visible through the array.
+     *
+     * @return The final y-coordinates of all points.
+     */
+    public double[] getYArray() {
+        return y;
+    }
+
+    /**
+     * Get the backing array of HowFound codes, the ordinal of the HowFound
+     * value of each point. Changes to the buffer are visible through the array.
+     *
+     * @return The HowFound codes of all points.
+     */
+    public byte[] getHowFoundArray() {
+        return howFound;
+    }
+
+    /**
+     * Get if a point is in the Mandelbrot set.
+     *
+     * @param index The index of the point in the buffer.
+     * @return True if the point is in the set, false if it isn't.
+     */
+    public boolean isInSet(int index) {
+        return howFound[index] != HowFound.NOT.ordinal();
+    }
+}
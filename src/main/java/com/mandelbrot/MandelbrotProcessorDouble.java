@@ -35,12 +35,15 @@ import com.mandelbrot.MandelbrotOutput.HowFound;
  * <p>
  * Designed for speed and precision, this implementation is suitable for
  * high-resolution rendering tasks where performance and accuracy are critical.
+ * The {@link PrimitiveMandelbrotProcessor} form writes results straight into a
+ * reusable buffer and should be preferred on hot rendering paths.
  * </p>
  *
  * @author George Miller
  * @version 1.0, 2025-06-10
  */
-public class MandelbrotProcessorDouble implements MandelbrotProcessor<Double> {
+public class MandelbrotProcessorDouble implements MandelbrotProcessor<Double>,
+        PrimitiveMandelbrotProcessor {
 
     private static final double PERIODICITY_THRESHOLD = 1e-17;
 
@@ -52,20 +55,53 @@ public class MandelbrotProcessorDouble implements MandelbrotProcessor<Double> {
      */
     @Override
     public MandelbrotOutput<Double> processCoordinate(MandelbrotInput<Double> input) {
-        final double px = input.getStartX();
-        final double py = input.getStartY();
-        final int maxIter = input.maxIteration;
-        final double bailout = input.bailout;
+        MandelbrotBuffer output = new MandelbrotBuffer(1);
+        iterate(input.getStartX(), input.getStartY(), input.maxIteration, input.bailout, output, 0);
 
+        double x = output.getX(0);
+        double y = output.getY(0);
+        return new MandelbrotOutput<>(output.getIterations(0), x, y, x, y,
+                output.isInSet(0), output.getHowFound(0));
+    }
+
+    @Override
+    public void processCoordinate(double startX, double startY, int maxIteration,
+            double bailout, MandelbrotBuffer output, int index) {
+        iterate(startX, startY, maxIteration, bailout, output, index);
+    }
+
+    @Override
+    public void processSpan(double startX, double stepX, double startY, int count,
+            int maxIteration, double bailout, MandelbrotBuffer output, int offset) {
+        for (int i = 0; i < count; i++) {
+            iterate(startX + i * stepX, startY, maxIteration, bailout, output, offset + i);
+        } //f
+    }
+
+    /**
+     * Iterate a single coordinate with all known optimizations and write the
+     * result into a buffer.
+     *
+     * @param px The x-coordinate of the point where the orbit starts.
+     * @param py The y-coordinate of the point where the orbit starts.
+     * @param maxIter The maximum number of iterations.
+     * @param bailout The escape bailout.
+     * @param output The buffer the result is written to.
+     * @param index The index in the buffer the result is written to.
+     */
+    private static void iterate(double px, double py, int maxIter, double bailout,
+            MandelbrotBuffer output, int index) {
         // Cardioid check
         double q = (px - 0.25) * (px - 0.25) + py * py;
         if (q * (q + (px - 0.25)) < 0.25 * py * py) {
-            return new MandelbrotOutput<>(maxIter, px, py, px, py, true, HowFound.CARDIOID);
+            output.set(index, maxIter, px, py, HowFound.CARDIOID);
+            return;
         }
 
         // Period-2 bulb check
         if ((px + 1) * (px + 1) + py * py < 1.0 / 16.0) {
-            return new MandelbrotOutput<>(maxIter, px, py, px, py, true, HowFound.BULB);
+            output.set(index, maxIter, px, py, HowFound.BULB);
+            return;
         }
 
         // Standard Mandelbrot iteration
@@ -91,12 +127,14 @@ public class MandelbrotProcessorDouble implements MandelbrotProcessor<Double> {
 
             // Bailout
             if (zx2 + zy2 > bailout) {
-                return new MandelbrotOutput<>(i, zx, zy, zx, zy, false, HowFound.NOT);
+                output.set(index, i, zx, zy, HowFound.NOT);
+                return;
             }
 
             // Precision-based periodicity detection
             if (Math.abs(zx - hx) < PERIODICITY_THRESHOLD && Math.abs(zy - hy) < PERIODICITY_THRESHOLD) {
-                return new MandelbrotOutput<>(i, zx, zy, zx, zy, true, HowFound.PERIOD);
+                output.set(index, i, zx, zy, HowFound.PERIOD);
+                return;
             }
 
             // Cycle detection using spaced checkpoints (Hare & Tortoise)
@@ -105,7 +143,8 @@ public class MandelbrotProcessorDouble implements MandelbrotProcessor<Double> {
                 ty = zy;
             } else if (i > tortoiseLag && i % tortoiseLag == 0) {
                 if (Math.abs(zx - tx) < PERIODICITY_THRESHOLD && Math.abs(zy - ty) < PERIODICITY_THRESHOLD) {
-                    return new MandelbrotOutput<>(i, zx, zy, zx, zy, true, HowFound.PERIOD);
+                    output.set(index, i, zx, zy, HowFound.PERIOD);
+                    return;
                 }
             }
 
@@ -122,6 +161,6 @@ public class MandelbrotProcessorDouble implements MandelbrotProcessor<Double> {
         }
 
         // No escape, max iterations
-        return new MandelbrotOutput<>(maxIter, zx, zy, zx, zy, true, HowFound.MAX_ITERATION);
+        output.set(index, maxIter, zx, zy, HowFound.MAX_ITERATION);
     }
 }
@@ -0,0 +1,299 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.mandelbrot;
+
+import com.mandelbrot.MandelbrotOutput.HowFound;
+
+/**
+ * Implementation of the Mandelbrot set evaluator using double-double
+ * precision, about 106 bits.
+ * <p>
+ * This covers zooms from where {@link MandelbrotProcessorDouble} runs out of
+ * precision, near {@code 1e-13}, to around {@code 1e-30}. Every point is
+ * iterated directly, so unlike perturbation no reference orbit is needed and
+ * there are no glitches. The {@link DoubleDouble} arithmetic is written out
+ * inline on pairs of local doubles, so nothing is allocated while iterating.
+ * The cardioid, bulb and periodicity checks match
+ * {@link MandelbrotProcessorDouble}, with the periodicity threshold tightened
+ * to the extra precision.
+ * </p>
+ * <p>
+ * The generic form takes absolute coordinates. The
+ * {@link PrimitiveMandelbrotProcessor} form takes double offsets from a
+ * double-double center given at construction, as produced by
+ * {@link com.graph.PixelToDoubleDoubleCartesian#toRelativeCartesian()}, since
+ * absolute coordinates at these depths cannot be passed as doubles. Instances
+ * are immutable and can be shared by rendering threads.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class MandelbrotProcessorDoubleDouble implements MandelbrotProcessor<DoubleDouble>,
+        PrimitiveMandelbrotProcessor {
+
+    private static final double PERIODICITY_THRESHOLD = 1e-33;
+    /**
+     * Margin kept from the cardioid and bulb boundaries, since the checks are
+     * made in double precision.
+     */
+    private static final double CHECK_MARGIN = 1e-12;
+    /**
+     * The x-coordinate of the point offsets are measured from.
+     */
+    private final DoubleDouble centerX;
+    /**
+     * The y-coordinate of the point offsets are measured from.
+     */
+    private final DoubleDouble centerY;
+
+    /**
+     * Create new instance of MandelbrotProcessorDoubleDouble measuring offsets
+     * from the origin.
+     */
+    public MandelbrotProcessorDoubleDouble() {
+        this(DoubleDouble.ZERO, DoubleDouble.ZERO);
+    }
+
+    /**
+     * Create new instance of MandelbrotProcessorDoubleDouble.
+     *
+     * @param centerX The x-coordinate of the point offsets are measured from.
+     * @param centerY The y-coordinate of the point offsets are measured from.
+     */
+    public MandelbrotProcessorDoubleDouble(DoubleDouble centerX, DoubleDouble centerY) {
+        this.centerX = centerX;
+        this.centerY = centerY;
+    }
+
+    /**
+     * Process a single coordinate with all known optimizations. The end point
+     * of the orbit is returned rounded to double precision.
+     *
+     * @param input standard Mandelbrot input with coordinates and params
+     * @return MandelbrotOutput describing result
+     */
+    @Override
+    public MandelbrotOutput<DoubleDouble> processCoordinate(MandelbrotInput<DoubleDouble> input) {
+        MandelbrotBuffer output = new MandelbrotBuffer(1);
+        DoubleDouble x = input.getStartX();
+        DoubleDouble y = input.getStartY();
+        iterate(x.getHi(), x.getLo(), y.getHi(), y.getLo(), input.maxIteration, input.bailout,
+                output, 0);
+
+        double endX = output.getX(0);
+        double endY = output.getY(0);
+        return new MandelbrotOutput<>(output.getIterations(0), DoubleDouble.valueOf(endX),
+                DoubleDouble.valueOf(endY), endX, endY, output.isInSet(0), output.getHowFound(0));
+    }
+
+    @Override
+    public void processCoordinate(double startX, double startY, int maxIteration,
+            double bailout, MandelbrotBuffer output, int index) {
+        processOffset(startX, startY, maxIteration, bailout, output, index);
+    }
+
+    @Override
+    public void processSpan(double startX, double stepX, double startY, int count,
+            int maxIteration, double bailout, MandelbrotBuffer output, int offset) {
+        for (int i = 0; i < count; i++) {
+            processOffset(startX + i * stepX, startY, maxIteration, bailout, output, offset + i);
+        } //f
+    }
+
+    /**
+     * Add an offset to the center and iterate the resulting point.
+     *
+     * @param dx The x offset from the center.
+     * @param dy The y offset from the center.
+     * @param maxIter The maximum number of iterations.
+     * @param bailout The escape bailout.
+     * @param output The buffer the result is written to.
+     * @param index The index in the buffer the result is written to.
+     */
+    private void processOffset(double dx, double dy, int maxIter, double bailout,
+            MandelbrotBuffer output, int index) {
+        // TwoSum of the high part and the offset, plus the low part
+        double cxh = centerX.getHi(), cxl = centerX.getLo();
+        double s = cxh + dx;
+        double b = s - cxh;
+        double e = ((cxh - (s - b)) + (dx - b)) + cxl;
+        double pxh = s + e;
+        double pxl = e - (pxh - s);
+
+        double cyh = centerY.getHi(), cyl = centerY.getLo();
+        s = cyh + dy;
+        b = s - cyh;
+        e = ((cyh - (s - b)) + (dy - b)) + cyl;
+        double pyh = s + e;
+        double pyl = e - (pyh - s);
+
+        iterate(pxh, pxl, pyh, pyl, maxIter, bailout, output, index);
+    }
+
+    /**
+     * Iterate a single coordinate with all known optimizations and write the
+     * result into a buffer.
+     *
+     * @param pxh The high part of the x-coordinate of the point.
+     * @param pxl The low part of the x-coordinate of the point.
+     * @param pyh The high part of the y-coordinate of the point.
+     * @param pyl The low part of the y-coordinate of the point.
+     * @param maxIter The maximum number of iterations.
+     * @param bailout The escape bailout.
+     * @param output The buffer the result is written to.
+     * @param index The index in the buffer the result is written to.
+     */
+    private static void iterate(double pxh, double pxl, double pyh, double pyl,
+            int maxIter, double bailout, MandelbrotBuffer output, int index) {
+        // Cardioid check
+        double q = (pxh - 0.25) * (pxh - 0.25) + pyh * pyh;
+        if (q * (q + (pxh - 0.25)) < 0.25 * pyh * pyh - CHECK_MARGIN) {
+            output.set(index, maxIter, pxh, pyh, HowFound.CARDIOID);
+            return;
+        } //i
+
+        // Period-2 bulb check
+        if ((pxh + 1) * (pxh + 1) + pyh * pyh < 1.0 / 16.0 - CHECK_MARGIN) {
+            output.set(index, maxIter, pxh, pyh, HowFound.BULB);
+            return;
+        } //i
+
+        // Standard Mandelbrot iteration, each value a high and low part
+        double xh = 0.0, xl = 0.0, yh = 0.0, yl = 0.0;
+        double x2h = 0.0, x2l = 0.0, y2h = 0.0, y2l = 0.0;
+
+        // Scratch for the error-free transforms
+        double p, s, t, b, e, f, h;
+
+        // Periodicity memory
+        double hxh = 0.0, hxl = 0.0, hyh = 0.0, hyl = 0.0;
+        int checkInterval = 3;
+        int checkCounter = 0;
+        int updateCounter = 0;
+
+        // Hare and tortoise for cycle detection
+        double txh = 0.0, txl = 0.0, tyh = 0.0, tyl = 0.0;
+        int tortoiseLag = 10;
+
+        for (int i = 0; i < maxIter; i++) {
+            // xy = x * y, TwoProd plus cross terms
+            p = xh * yh;
+            e = Math.fma(xh, yh, -p) + (xh * yl + xl * yh);
+            double xyh = p + e;
+            double xyl = e - (xyh - p);
+
+            // y = 2 * xy + py
+            s = 2.0 * xyh + pyh;
+            b = s - 2.0 * xyh;
+            e = (2.0 * xyh - (s - b)) + (pyh - b);
+            t = 2.0 * xyl + pyl;
+            b = t - 2.0 * xyl;
+            f = (2.0 * xyl - (t - b)) + (pyl - b);
+            e += t;
+            h = s + e;
+            e = e - (h - s) + f;
+            yh = h + e;
+            yl = e - (yh - h);
+
+            // d = x2 - y2
+            s = x2h - y2h;
+            b = s - x2h;
+            e = (x2h - (s - b)) + (-y2h - b);
+            t = x2l - y2l;
+            b = t - x2l;
+            f = (x2l - (t - b)) + (-y2l - b);
+            e += t;
+            h = s + e;
+            e = e - (h - s) + f;
+            double dh = h + e;
+            double dl = e - (dh - h);
+
+            // x = d + px
+            s = dh + pxh;
+            b = s - dh;
+            e = (dh - (s - b)) + (pxh - b);
+            t = dl + pxl;
+            b = t - dl;
+            f = (dl - (t - b)) + (pxl - b);
+            e += t;
+            h = s + e;
+            e = e - (h - s) + f;
+            xh = h + e;
+            xl = e - (xh - h);
+
+            // Squares, TwoProd plus cross terms
+            p = xh * xh;
+            e = Math.fma(xh, xh, -p) + 2.0 * xh * xl;
+            x2h = p + e;
+            x2l = e - (x2h - p);
+            p = yh * yh;
+            e = Math.fma(yh, yh, -p) + 2.0 * yh * yl;
+            y2h = p + e;
+            y2l = e - (y2h - p);
+
+            // Bailout
+            if (x2h + y2h > bailout) {
+                output.set(index, i, xh, yh, HowFound.NOT);
+                return;
+            } //i
+
+            // Precision-based periodicity detection
+            if (Math.abs((xh - hxh) + (xl - hxl)) < PERIODICITY_THRESHOLD
+                    && Math.abs((yh - hyh) + (yl - hyl)) < PERIODICITY_THRESHOLD) {
+                output.set(index, i, xh, yh, HowFound.PERIOD);
+                return;
+            } //i
+
+            // Cycle detection using spaced checkpoints (Hare & Tortoise)
+            if (i == tortoiseLag) {
+                txh = xh;
+                txl = xl;
+                tyh = yh;
+                tyl = yl;
+            } else if (i > tortoiseLag && i % tortoiseLag == 0) {
+                if (Math.abs((xh - txh) + (xl - txl)) < PERIODICITY_THRESHOLD
+                        && Math.abs((yh - tyh) + (yl - tyl)) < PERIODICITY_THRESHOLD) {
+                    output.set(index, i, xh, yh, HowFound.PERIOD);
+                    return;
+                } //i
+            } //ie
+
+            // Adaptive periodicity memory update
+            if (checkCounter++ >= checkInterval) {
+                checkCounter = 0;
+                if (++updateCounter >= 10) {
+                    checkInterval *= 2;
+                    updateCounter = 0;
+                } //i
+                hxh = xh;
+                hxl = xl;
+                hyh = yh;
+                hyl = yl;
+            } //i
+        } //f
+
+        // No escape, max iterations
+        output.set(index, maxIter, xh, yh, HowFound.MAX_ITERATION);
+    }
+}
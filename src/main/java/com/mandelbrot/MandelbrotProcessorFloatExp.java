@@ -0,0 +1,312 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.mandelbrot;
+
+import com.mandelbrot.MandelbrotOutput.HowFound;
+import java.math.BigDecimal;
+
+/**
+ * Perturbation Mandelbrot set evaluator for zooms deeper than the range of a
+ * double, using extended exponent offsets.
+ * <p>
+ * Below about {@code 1e-290} the offsets of pixels from the reference point
+ * underflow a double, so {@link MandelbrotProcessorPerturbation} can no longer
+ * tell them apart. This processor takes its coordinates in units of
+ * {@code 2^scaleExponent}, as produced by
+ * {@link com.graph.PixelToFloatExpCartesian#toScaledCartesian()}, and keeps
+ * each offset {@code dz} as a double mantissa and a long exponent in local
+ * variables, in the manner of {@link FloatExp}, rescaling the mantissa when
+ * it drifts. No objects are created while iterating.
+ * </p>
+ * <p>
+ * The offsets grow as the orbit is iterated. Once {@code dz} is large enough
+ * to be a double again the point is handed to the plain double perturbation
+ * loop, so the extended exponent arithmetic is only paid for the first
+ * iterations. By then {@code dc} is negligible next to {@code dz}. Iterations
+ * are skipped with a {@link BilinearApproximationTable} when one is given.
+ * </p>
+ * <p>
+ * Glitches are detected and rebased with the same criteria as
+ * {@link MandelbrotProcessorPerturbation}, compared in units of
+ * {@code 2^e} so they still work where {@code dz} underflows a double. They
+ * can only trigger where the reference orbit passes within a few powers of
+ * two of {@code |dz|} of zero, such as near the center of a minibrot.
+ * Instances are immutable and can be shared by rendering threads.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class MandelbrotProcessorFloatExp implements PrimitiveMandelbrotProcessor {
+
+    /**
+     * The binary exponent of the smallest pixel that double perturbation
+     * resolves. Pixels smaller than this need this processor.
+     */
+    public static final long MIN_DOUBLE_EXPONENT = -960;
+    /**
+     * Offsets above {@code 2^HANDOFF_EXPONENT} continue in double precision.
+     */
+    private static final long HANDOFF_EXPONENT = -900;
+    /**
+     * The mantissa is rescaled when its binary exponent drifts beyond this.
+     */
+    private static final int RESCALE_EXPONENT = 64;
+    /**
+     * A reference point more than this many powers of two above {@code dz}
+     * can't be involved in a glitch, as {@code |w|} is below
+     * {@code 2^RESCALE_EXPONENT}.
+     */
+    private static final int GLITCH_EXPONENT = RESCALE_EXPONENT + 2;
+    /**
+     * The orbit of the reference point.
+     */
+    private final ReferenceOrbit reference;
+    /**
+     * Approximations used to skip iterations, null to iterate every step.
+     */
+    private final BilinearApproximationTable approximations;
+    /**
+     * The binary exponent of the unit coordinates are given in.
+     */
+    private final long scaleExponent;
+
+    /**
+     * Create new instance of MandelbrotProcessorFloatExp from an existing
+     * reference orbit.
+     *
+     * @param reference The orbit of the reference point.
+     * @param approximations Approximations built for the reference orbit, or
+     * null to iterate every step.
+     * @param scaleExponent The binary exponent of the unit coordinates are
+     * given in.
+     */
+    public MandelbrotProcessorFloatExp(ReferenceOrbit reference,
+            BilinearApproximationTable approximations, long scaleExponent) {
+        this.reference = reference;
+        this.approximations = approximations;
+        this.scaleExponent = scaleExponent;
+    }
+
+    /**
+     * Create new instance of MandelbrotProcessorFloatExp, computing the orbit
+     * of the reference point and the approximations for a frame.
+     *
+     * @param centerX The x-coordinate of the reference point.
+     * @param centerY The y-coordinate of the reference point.
+     * @param pixelSpacing The length of the plane that each pixel represents.
+     * @param scaleExponent The binary exponent of the unit coordinates are
+     * given in.
+     * @param maxIteration The maximum number of iterations.
+     * @param bailout The squared length from the origin the orbit must exceed
+     * to escape.
+     */
+    public MandelbrotProcessorFloatExp(BigDecimal centerX, BigDecimal centerY,
+            FloatExp pixelSpacing, long scaleExponent, int maxIteration, double bailout) {
+        this(new ReferenceOrbit(centerX, centerY, maxIteration, bailout,
+                ReferenceOrbit.precisionFor(pixelSpacing)), scaleExponent);
+    }
+
+    /**
+     * Create new instance of MandelbrotProcessorFloatExp from an existing
+     * reference orbit, building its approximations. The offsets of the frame
+     * are negligible next to the validity radii, so they are taken as zero.
+     *
+     * @param reference The orbit of the reference point.
+     * @param scaleExponent The binary exponent of the unit coordinates are
+     * given in.
+     */
+    private MandelbrotProcessorFloatExp(ReferenceOrbit reference, long scaleExponent) {
+        this(reference, new BilinearApproximationTable(reference, 0.0), scaleExponent);
+    }
+
+    /**
+     * Determine if a frame is too deep for double precision perturbation.
+     *
+     * @param pixelSpacing The length of the plane that each pixel represents.
+     * @return True if this processor must be used.
+     */
+    public static boolean isNeeded(FloatExp pixelSpacing) {
+        return pixelSpacing.getExponent() < MIN_DOUBLE_EXPONENT;
+    }
+
+    /**
+     * Get the orbit of the reference point.
+     *
+     * @return The reference orbit.
+     */
+    public ReferenceOrbit getReference() {
+        return reference;
+    }
+
+    /**
+     * Get the binary exponent of the unit coordinates are given in.
+     *
+     * @return The scale exponent.
+     */
+    public long getScaleExponent() {
+        return scaleExponent;
+    }
+
+    @Override
+    public void processCoordinate(double startX, double startY, int maxIteration,
+            double bailout, MandelbrotBuffer output, int index) {
+        iterate(startX, startY, maxIteration, bailout, output, index);
+    }
+
+    @Override
+    public void processSpan(double startX, double stepX, double startY, int count,
+            int maxIteration, double bailout, MandelbrotBuffer output, int offset) {
+        for (int i = 0; i < count; i++) {
+            iterate(startX + i * stepX, startY, maxIteration, bailout, output, offset + i);
+        } //f
+    }
+
+    /**
+     * Iterate the offset of a point from the reference and write the result
+     * into a buffer.
+     *
+     * @param dx The x offset of the point in units of {@code 2^scaleExponent}.
+     * @param dy The y offset of the point in units of {@code 2^scaleExponent}.
+     * @param maxIter The maximum number of iterations.
+     * @param bailout The escape bailout.
+     * @param output The buffer the result is written to.
+     * @param index The index in the buffer the result is written to.
+     */
+    private void iterate(double dx, double dy, int maxIter, double bailout,
+            MandelbrotBuffer output, int index) {
+        // dz = w * 2^e, and dc = d * 2^s is d * dcScale in units of 2^e
+        double wx = 0.0, wy = 0.0;
+        long e = scaleExponent;
+        double zScale = pow2(e);
+        double dcScale = 1.0;
+        int m = 0;
+        int i = 0;
+
+        double zx = 0.0, zy = 0.0;
+
+        while (i < maxIter) {
+            if (e > HANDOFF_EXPONENT) {
+                // dz is a double again, dc underflows but is negligible beside it
+                MandelbrotProcessorPerturbation.iterate(reference, approximations,
+                        Math.scalb(dx, clamp(scaleExponent)), Math.scalb(dy, clamp(scaleExponent)),
+                        Math.scalb(wx, clamp(e)), Math.scalb(wy, clamp(e)), m, i,
+                        maxIter, bailout, output, index);
+                return;
+            } //i
+
+            // |dz|^2 underflows to zero here, always inside the validity radii
+            int level = approximations == null ? -1
+                    : approximations.findLevel(m, 0.0, maxIter - i);
+            if (level >= 0) {
+                // Skip 2^level steps: dz' = A * dz + B * dc
+                double aX = approximations.getAX(level, m);
+                double aY = approximations.getAY(level, m);
+                double bX = approximations.getBX(level, m);
+                double bY = approximations.getBY(level, m);
+                double nextX = aX * wx - aY * wy + (bX * dx - bY * dy) * dcScale;
+                double nextY = aX * wy + aY * wx + (bX * dy + bY * dx) * dcScale;
+                wx = nextX;
+                wy = nextY;
+                m += 1 << level;
+                i += 1 << level;
+            } else {
+                double refX = reference.getX(m);
+                double refY = reference.getY(m);
+
+                // dz' = 2 * Z * dz + dz^2 + dc, in units of 2^e
+                double nextX = 2.0 * (refX * wx - refY * wy) + (wx * wx - wy * wy) * zScale
+                        + dx * dcScale;
+                double nextY = 2.0 * (refX * wy + refY * wx) + 2.0 * wx * wy * zScale
+                        + dy * dcScale;
+                wx = nextX;
+                wy = nextY;
+                m++;
+                i++;
+            } //ie
+
+            double refX = reference.getX(m);
+            double refY = reference.getY(m);
+            zx = refX + wx * zScale;
+            zy = refY + wy * zScale;
+
+            // Bailout, reported as the index of the escaping step
+            if (zx * zx + zy * zy > bailout) {
+                output.set(index, i - 1, zx, zy, HowFound.NOT);
+                return;
+            } //i
+
+            // Glitch detection and rebasing, in units of 2^e
+            double refMagnitude = Math.max(Math.abs(refX), Math.abs(refY));
+            if (refMagnitude == 0.0 || Math.getExponent(refMagnitude) <= e + GLITCH_EXPONENT) {
+                double rx = Math.scalb(refX, clamp(-e));
+                double ry = Math.scalb(refY, clamp(-e));
+                double sx = rx + wx;
+                double sy = ry + wy;
+                double radius = sx * sx + sy * sy;
+                double refRadius = rx * rx + ry * ry;
+                if (radius < wx * wx + wy * wy
+                        || radius < MandelbrotProcessorPerturbation.GLITCH_TOLERANCE * refRadius) {
+                    wx = sx;
+                    wy = sy;
+                    m = 0;
+                } //i
+            } //i
+
+            // Keep the mantissa near one
+            double magnitude = Math.max(Math.abs(wx), Math.abs(wy));
+            int drift = Math.getExponent(magnitude);
+            if (magnitude != 0.0 && Math.abs(drift) > RESCALE_EXPONENT) {
+                wx = Math.scalb(wx, -drift);
+                wy = Math.scalb(wy, -drift);
+                e += drift;
+                zScale = pow2(e);
+                dcScale = pow2(scaleExponent - e);
+            } //i
+        } //w
+
+        // No escape, max iterations
+        output.set(index, maxIter, zx, zy, HowFound.MAX_ITERATION);
+    }
+
+    /**
+     * Get a power of two as a double, which may underflow to zero.
+     *
+     * @param exponent The power.
+     * @return The nearest double to {@code 2^exponent}.
+     */
+    private static double pow2(long exponent) {
+        return Math.scalb(1.0, clamp(exponent));
+    }
+
+    /**
+     * Clamp an exponent to a range that rounds the same way but fits in an
+     * int.
+     *
+     * @param exponent The exponent.
+     * @return The clamped exponent.
+     */
+    private static int clamp(long exponent) {
+        return (int) Math.max(-4096, Math.min(4096, exponent));
+    }
+}
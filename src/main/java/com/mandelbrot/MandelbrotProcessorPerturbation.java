@@ -0,0 +1,266 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mandelbrot;
+
+import com.mandelbrot.MandelbrotOutput.HowFound;
+import java.math.BigDecimal;
+
+/**
+ * Deep zoom implementation of the Mandelbrot set evaluator using perturbation
+ * theory.
+ * <p>
+ * A single {@link ReferenceOrbit} is computed in arbitrary precision at the
+ * center of the frame. Every other point is then described by its offset
+ * {@code dc} from the reference, and its orbit by the offset {@code dz} from
+ * the reference orbit, which obeys
+ * {@code dz' = 2 * Z * dz + dz * dz + dc}. These offsets are tiny but only
+ * need to be accurate relative to themselves, so they are iterated in plain
+ * double precision long after absolute coordinates stop resolving pixels.
+ * </p>
+ * <p>
+ * Glitches, where the offset grows comparable to the orbit and precision is
+ * lost, are detected with Pauldelbrot's criterion
+ * {@code |Z + dz|^2 < 1e-6 * |Z|^2} and with the stricter {@code |Z + dz| < |dz|}.
+ * Either triggers a rebase: the orbit continues from the start of the reference
+ * with {@code dz = Z + dz}, which is exact because the reference starts at zero.
+ * Rebasing also continues orbits past the point where the reference escaped,
+ * so one reference serves the whole frame.
+ * </p>
+ * <p>
+ * When given a {@link BilinearApproximationTable}, each pixel skips as many
+ * iterations as the table allows while its offset is small, jumping most of a
+ * long shared prefix of iterations in a few steps rather than one by one.
+ * </p>
+ * <p>
+ * The coordinates passed to this processor are offsets from the reference
+ * point, for example from a {@link com.graph.PixelToDoubleCartesian} centered
+ * on zero with the width of the frame. The cardioid, bulb and periodicity
+ * checks of {@link MandelbrotProcessorDouble} need absolute coordinates and are
+ * not used. Instances are immutable and can be shared by rendering threads.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class MandelbrotProcessorPerturbation implements PrimitiveMandelbrotProcessor {
+
+    /**
+     * Pauldelbrot's glitch tolerance, the squared ratio of |Z + dz| to |Z| below
+     * which the offset is assumed to have lost precision.
+     */
+    static final double GLITCH_TOLERANCE = 1e-6;
+    /**
+     * The orbit of the reference point.
+     */
+    private final ReferenceOrbit reference;
+    /**
+     * Approximations used to skip iterations, null to iterate every step.
+     */
+    private final BilinearApproximationTable approximations;
+
+    /**
+     * Create new instance of MandelbrotProcessorPerturbation from an existing
+     * reference orbit, iterating every step.
+     *
+     * @param reference The orbit of the reference point.
+     */
+    public MandelbrotProcessorPerturbation(ReferenceOrbit reference) {
+        this(reference, null);
+    }
+
+    /**
+     * Create new instance of MandelbrotProcessorPerturbation from an existing
+     * reference orbit and its table of approximations.
+     *
+     * @param reference The orbit of the reference point.
+     * @param approximations Approximations built for the reference orbit, or
+     * null to iterate every step.
+     */
+    public MandelbrotProcessorPerturbation(ReferenceOrbit reference,
+            BilinearApproximationTable approximations) {
+        this.reference = reference;
+        this.approximations = approximations;
+    }
+
+    /**
+     * Create new instance of MandelbrotProcessorPerturbation, computing the
+     * orbit of the reference point and the approximations for a frame.
+     *
+     * @param centerX The x-coordinate of the reference point.
+     * @param centerY The y-coordinate of the reference point.
+     * @param pixelSpacing The length of the plane that each pixel represents.
+     * @param maxOffset The largest distance of any point in the frame from the
+     * reference point.
+     * @param maxIteration The maximum number of iterations.
+     * @param bailout The squared length from the origin the orbit must exceed
+     * to escape.
+     */
+    public MandelbrotProcessorPerturbation(BigDecimal centerX, BigDecimal centerY,
+            double pixelSpacing, double maxOffset, int maxIteration, double bailout) {
+        this(new ReferenceOrbit(centerX, centerY, maxIteration, bailout,
+                ReferenceOrbit.precisionFor(pixelSpacing)), maxOffset);
+    }
+
+    /**
+     * Create new instance of MandelbrotProcessorPerturbation from an existing
+     * reference orbit, building its approximations.
+     *
+     * @param reference The orbit of the reference point.
+     * @param maxOffset The largest distance of any point in the frame from the
+     * reference point.
+     */
+    private MandelbrotProcessorPerturbation(ReferenceOrbit reference, double maxOffset) {
+        this(reference, new BilinearApproximationTable(reference, maxOffset));
+    }
+
+    /**
+     * Get the orbit of the reference point.
+     *
+     * @return The reference orbit.
+     */
+    public ReferenceOrbit getReference() {
+        return reference;
+    }
+
+    /**
+     * Get the approximations used to skip iterations.
+     *
+     * @return The table of approximations, or null if every step is iterated.
+     */
+    public BilinearApproximationTable getApproximations() {
+        return approximations;
+    }
+
+    @Override
+    public void processCoordinate(double startX, double startY, int maxIteration,
+            double bailout, MandelbrotBuffer output, int index) {
+        iterate(reference, approximations, startX, startY, maxIteration, bailout, output, index);
+    }
+
+    @Override
+    public void processSpan(double startX, double stepX, double startY, int count,
+            int maxIteration, double bailout, MandelbrotBuffer output, int offset) {
+        for (int i = 0; i < count; i++) {
+            iterate(reference, approximations, startX + i * stepX, startY, maxIteration, bailout, output, offset + i);
+        } //f
+    }
+
+    /**
+     * Iterate the offset of a point from the reference and write the result
+     * into a buffer.
+     *
+     * @param reference The orbit of the reference point.
+     * @param approximations Approximations used to skip iterations, or null.
+     * @param dcx The x offset of the point from the reference point.
+     * @param dcy The y offset of the point from the reference point.
+     * @param maxIter The maximum number of iterations.
+     * @param bailout The escape bailout.
+     * @param output The buffer the result is written to.
+     * @param index The index in the buffer the result is written to.
+     */
+    private static void iterate(ReferenceOrbit reference,
+            BilinearApproximationTable approximations, double dcx, double dcy,
+            int maxIter, double bailout, MandelbrotBuffer output, int index) {
+        iterate(reference, approximations, dcx, dcy, 0.0, 0.0, 0, 0,
+                maxIter, bailout, output, index);
+    }
+
+    /**
+     * Continue iterating the offset of a point from the reference from a
+     * given state and write the result into a buffer.
+     *
+     * @param reference The orbit of the reference point.
+     * @param approximations Approximations used to skip iterations, or null.
+     * @param dcx The x offset of the point from the reference point.
+     * @param dcy The y offset of the point from the reference point.
+     * @param dzx The x offset of the orbit from the reference orbit.
+     * @param dzy The y offset of the orbit from the reference orbit.
+     * @param m The position along the reference orbit.
+     * @param i The number of steps already taken.
+     * @param maxIter The maximum number of iterations.
+     * @param bailout The escape bailout.
+     * @param output The buffer the result is written to.
+     * @param index The index in the buffer the result is written to.
+     */
+    static void iterate(ReferenceOrbit reference,
+            BilinearApproximationTable approximations, double dcx, double dcy,
+            double dzx, double dzy, int m, int i,
+            int maxIter, double bailout, MandelbrotBuffer output, int index) {
+        int last = reference.getLength() - 1;
+
+        double zx = reference.getX(m) + dzx;
+        double zy = reference.getY(m) + dzy;
+
+        while (i < maxIter) {
+            int level = approximations == null ? -1
+                    : approximations.findLevel(m, dzx * dzx + dzy * dzy, maxIter - i);
+            if (level >= 0) {
+                // Skip 2^level steps: dz' = A * dz + B * dc
+                double aX = approximations.getAX(level, m);
+                double aY = approximations.getAY(level, m);
+                double bX = approximations.getBX(level, m);
+                double bY = approximations.getBY(level, m);
+                double nextX = aX * dzx - aY * dzy + bX * dcx - bY * dcy;
+                double nextY = aX * dzy + aY * dzx + bX * dcy + bY * dcx;
+                dzx = nextX;
+                dzy = nextY;
+                m += 1 << level;
+                i += 1 << level;
+            } else {
+                double refX = reference.getX(m);
+                double refY = reference.getY(m);
+
+                // dz' = 2 * Z * dz + dz^2 + dc
+                double nextX = 2.0 * (refX * dzx - refY * dzy) + (dzx * dzx - dzy * dzy) + dcx;
+                double nextY = 2.0 * (refX * dzy + refY * dzx) + 2.0 * dzx * dzy + dcy;
+                dzx = nextX;
+                dzy = nextY;
+                m++;
+                i++;
+            } //ie
+
+            double refX = reference.getX(m);
+            double refY = reference.getY(m);
+            zx = refX + dzx;
+            zy = refY + dzy;
+            double radius = zx * zx + zy * zy;
+
+            // Bailout, reported as the index of the escaping step
+            if (radius > bailout) {
+                output.set(index, i - 1, zx, zy, HowFound.NOT);
+                return;
+            } //i
+
+            // Glitch detection and rebasing
+            double refRadius = refX * refX + refY * refY;
+            if (m == last || radius < dzx * dzx + dzy * dzy
+                    || radius < GLITCH_TOLERANCE * refRadius) {
+                dzx = zx;
+                dzy = zy;
+                m = 0;
+            } //i
+        } //w
+
+        // No escape, max iterations
+        output.set(index, maxIter, zx, zy, HowFound.MAX_ITERATION);
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mandelbrot;
+
+import com.mandelbrot.MandelbrotOutput.HowFound;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD implementation of the double precision Mandelbrot set evaluator using
+ * the JDK Vector API.
+ * <p>
+ * Spans of points are iterated in lockstep, one point per vector lane. Each
+ * lane carries its own escape and periodicity state as mask bits, and the
+ * loop stops as soon as every lane has escaped or been proven to be in the
+ * set. The cardioid and bulb checks, periodicity detection and "hare and
+ * tortoise" cycle detection match {@link MandelbrotProcessorDouble}, so both
+ * produce the same results.
+ * </p>
+ * <p>
+ * This class requires the {@code jdk.incubator.vector} module. Use
+ * {@link MandelbrotProcessors#createPrimitive()} rather than constructing it
+ * directly, so that the scalar processor is used when the module is not
+ * enabled.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class MandelbrotProcessorVector implements PrimitiveMandelbrotProcessor {
+
+    private static final double PERIODICITY_THRESHOLD = 1e-17;
+    /**
+     * The widest vector shape supported by the hardware.
+     */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    /**
+     * The number of points iterated together.
+     */
+    private static final int LANES = SPECIES.length();
+    /**
+     * Lane bits with every lane set.
+     */
+    private static final long ALL_LANES = (1L << LANES) - 1;
+    /**
+     * The lane number of each lane.
+     */
+    private static final DoubleVector LANE_INDEX = DoubleVector.broadcast(SPECIES, 0.0)
+            .addIndex(1);
+    /**
+     * Scalar processor for single points and the tail of a span.
+     */
+    private final MandelbrotProcessorDouble scalar = new MandelbrotProcessorDouble();
+
+    @Override
+    public void processCoordinate(double startX, double startY, int maxIteration,
+            double bailout, MandelbrotBuffer output, int index) {
+        scalar.processCoordinate(startX, startY, maxIteration, bailout, output, index);
+    }
+
+    @Override
+    public void processSpan(double startX, double stepX, double startY, int count,
+            int maxIteration, double bailout, MandelbrotBuffer output, int offset) {
+        int i = 0;
+        if (count >= LANES) {
+            // Short spans, such as one row of samples of a pixel, only run the
+            // scalar tail and need no lane scratch
+            double[] laneX = new double[LANES];
+            double[] laneY = new double[LANES];
+            for (; i + LANES <= count; i += LANES) {
+                iterateLanes(startX, stepX, i, startY, maxIteration, bailout,
+                        output, offset + i, laneX, laneY);
+            } //f
+        } //i
+
+        for (; i < count; i++) {
+            scalar.processCoordinate(startX + i * stepX, startY, maxIteration,
+                    bailout, output, offset + i);
+        } //f
+    }
+
+    /**
+     * Iterate one vector of points of a span in lockstep.
+     *
+     * @param startX The x-coordinate of the first point of the span.
+     * @param stepX The distance along the x-axis between neighbouring points.
+     * @param first The position in the span of the first lane.
+     * @param py The y-coordinate shared by all points.
+     * @param maxIter The maximum number of iterations.
+     * @param bailout The escape bailout.
+     * @param output The buffer the results are written to.
+     * @param index The index in the buffer of the first lane.
+     * @param laneX Scratch array for extracting x-coordinates of lanes.
+     * @param laneY Scratch array for extracting y-coordinates of lanes.
+     */
+    private static void iterateLanes(double startX, double stepX, int first, double py,
+            int maxIter, double bailout, MandelbrotBuffer output, int index,
+            double[] laneX, double[] laneY) {
+        DoubleVector cx = LANE_INDEX.add(first).mul(stepX).add(startX);
+        DoubleVector cy = DoubleVector.broadcast(SPECIES, py);
+
+        // Cardioid check
+        DoubleVector xq = cx.sub(0.25);
+        DoubleVector y2 = cy.mul(cy);
+        DoubleVector q = xq.mul(xq).add(y2);
+        VectorMask<Double> cardioid = q.mul(q.add(xq)).lt(y2.mul(0.25));
+
+        // Period-2 bulb check
+        DoubleVector xb = cx.add(1.0);
+        VectorMask<Double> bulb = xb.mul(xb).add(y2).lt(1.0 / 16.0).andNot(cardioid);
+
+        // Lanes still being iterated, one bit per lane
+        long active = ALL_LANES & ~(cardioid.toLong() | bulb.toLong());
+        if (active != ALL_LANES) {
+            cx.intoArray(laneX, 0);
+            cy.intoArray(laneY, 0);
+            store(output, index, laneX, laneY, cardioid.toLong(), maxIter, HowFound.CARDIOID);
+            store(output, index, laneX, laneY, bulb.toLong(), maxIter, HowFound.BULB);
+            if (active == 0) {
+                return;
+            } //i
+        } //i
+
+        // Standard Mandelbrot iteration
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+        DoubleVector zx = zero, zy = zero;
+        DoubleVector zx2 = zero, zy2 = zero;
+
+        // Periodicity memory
+        DoubleVector hx = zero, hy = zero;
+        int checkInterval = 3;
+        int checkCounter = 0;
+        int updateCounter = 0;
+
+        // Hare and tortoise for cycle detection
+        DoubleVector tx = zero, ty = zero;
+        int tortoiseLag = 10;
+
+        for (int i = 0; i < maxIter; i++) {
+            zy = zx.mul(zy).mul(2.0).add(cy);
+            zx = zx2.sub(zy2).add(cx);
+
+            zx2 = zx.mul(zx);
+            zy2 = zy.mul(zy);
+
+            // Bailout
+            long escaped = zx2.add(zy2).compare(VectorOperators.GT, bailout).toLong() & active;
+            if (escaped != 0) {
+                zx.intoArray(laneX, 0);
+                zy.intoArray(laneY, 0);
+                store(output, index, laneX, laneY, escaped, i, HowFound.NOT);
+                active &= ~escaped;
+                if (active == 0) {
+                    return;
+                } //i
+            } //i
+
+            // Precision-based periodicity detection. Kept inline rather than in
+            // a helper, as vectors passed to a method that isn't inlined are
+            // boxed on every iteration.
+            DoubleVector dx = zx.sub(hx);
+            DoubleVector dy = zy.sub(hy);
+            long period = dx.lt(PERIODICITY_THRESHOLD).and(dx.compare(VectorOperators.GT, -PERIODICITY_THRESHOLD))
+                    .and(dy.lt(PERIODICITY_THRESHOLD)).and(dy.compare(VectorOperators.GT, -PERIODICITY_THRESHOLD))
+                    .toLong() & active;
+
+            // Cycle detection using spaced checkpoints (Hare & Tortoise)
+            if (i == tortoiseLag) {
+                tx = zx;
+                ty = zy;
+            } else if (i > tortoiseLag && i % tortoiseLag == 0) {
+                dx = zx.sub(tx);
+                dy = zy.sub(ty);
+                period |= dx.lt(PERIODICITY_THRESHOLD).and(dx.compare(VectorOperators.GT, -PERIODICITY_THRESHOLD))
+                        .and(dy.lt(PERIODICITY_THRESHOLD)).and(dy.compare(VectorOperators.GT, -PERIODICITY_THRESHOLD))
+                        .toLong() & active;
+            } //ie
+
+            if (period != 0) {
+                zx.intoArray(laneX, 0);
+                zy.intoArray(laneY, 0);
+                store(output, index, laneX, laneY, period, i, HowFound.PERIOD);
+                active &= ~period;
+                if (active == 0) {
+                    return;
+                } //i
+            } //i
+
+            // Adaptive periodicity memory update
+            if (checkCounter++ >= checkInterval) {
+                checkCounter = 0;
+                if (++updateCounter >= 10) {
+                    checkInterval *= 2;
+                    updateCounter = 0;
+                } //i
+                hx = zx;
+                hy = zy;
+            } //i
+        } //f
+
+        // No escape, max iterations
+        zx.intoArray(laneX, 0);
+        zy.intoArray(laneY, 0);
+        store(output, index, laneX, laneY, active, maxIter, HowFound.MAX_ITERATION);
+    }
+
+    /**
+     * Write the results of the lanes set in a mask to the output buffer.
+     *
+     * @param output The buffer the results are written to.
+     * @param index The index in the buffer of the first lane.
+     * @param laneX The x-coordinates of where the orbits of the lanes ended.
+     * @param laneY The y-coordinates of where the orbits of the lanes ended.
+     * @param lanes The lanes to write, one bit per lane.
+     * @param iterations The number of iterations of the lanes.
+     * @param howFound How the lanes were found.
+     */
+    private static void store(MandelbrotBuffer output, int index, double[] laneX,
+            double[] laneY, long lanes, int iterations, HowFound howFound) {
+        for (int lane = 0; lane < LANES; lane++) {
+            if ((lanes & (1L << lane)) != 0) {
+                output.set(index + lane, iterations, laneX[lane], laneY[lane], howFound);
+            } //i
+        } //f
+    }
+}
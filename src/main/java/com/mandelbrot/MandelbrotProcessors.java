@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.mandelbrot;
+
+/**
+ * Factory for selecting the double precision Mandelbrot processor at runtime.
+ * <p>
+ * The SIMD processor {@link MandelbrotProcessorVector} is used when the
+ * {@code jdk.incubator.vector} module has been enabled on the command line
+ * (<code>--add-modules jdk.incubator.vector</code>). Otherwise, or if it fails
+ * to load, the scalar {@link MandelbrotProcessorDouble} is used.
+ * </p>
+ * <p>
+ * The choice can be forced with the {@code mandelbrot.processor} system
+ * property, which may be {@code auto} (the default), {@code vector} or
+ * {@code scalar}.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class MandelbrotProcessors {
+
+    /**
+     * System property used to choose the processor.
+     */
+    public static final String PROCESSOR_PROPERTY = "mandelbrot.processor";
+    /**
+     * Name of the module the vector processor depends on.
+     */
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    /**
+     * Name of the vector processor class, loaded reflectively so this class
+     * links without the vector module.
+     */
+    private static final String VECTOR_PROCESSOR = "com.mandelbrot.MandelbrotProcessorVector";
+
+    /**
+     * Cannot create instance of MandelbrotProcessors.
+     */
+    private MandelbrotProcessors() {
+        throw new AssertionError("Cannot make MandelbrotProcessors!");
+    }
+
+    /**
+     * Create the fastest double precision processor available, honouring the
+     * {@code mandelbrot.processor} system property.
+     *
+     * @return New double precision processor.
+     */
+    public static PrimitiveMandelbrotProcessor createPrimitive() {
+        String choice = System.getProperty(PROCESSOR_PROPERTY, "auto");
+        if (choice.equalsIgnoreCase("scalar")) {
+            return new MandelbrotProcessorDouble();
+        } //i
+
+        PrimitiveMandelbrotProcessor vector = createVector();
+        if (vector != null) {
+            return vector;
+        } //i
+
+        if (choice.equalsIgnoreCase("vector")) {
+            System.out.println("Vector processor unavailable, add --add-modules "
+                    + VECTOR_MODULE + " to enable it. Using scalar processor.");
+        } //i
+
+        return new MandelbrotProcessorDouble();
+    }
+
+    /**
+     * Get if the vector processor can be used in this JVM.
+     *
+     * @return True if the vector module is enabled, false if it isn't.
+     */
+    public static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    /**
+     * Create the vector processor if the vector module is enabled.
+     *
+     * @return New vector processor, or null if it can't be used.
+     */
+    private static PrimitiveMandelbrotProcessor createVector() {
+        if (!isVectorAvailable()) {
+            return null;
+        } //i
+
+        try {
+            return (PrimitiveMandelbrotProcessor) Class.forName(VECTOR_PROCESSOR)
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            System.out.println("Vector processor failed to load: " + ex);
+            return null;
+        } //tc
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.mandelbrot;
+
+/**
+ * The arithmetic used to evaluate a frame, in the order a deepening zoom
+ * needs them.
+ * <p>
+ * Each tier resolves pixels down to a certain size relative to the center of
+ * the frame. Zooms step through the tiers as they deepen, see
+ * {@link com.render.PrecisionSelector}.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public enum PrecisionTier {
+
+    /**
+     * Double precision, {@link MandelbrotProcessors#createPrimitive()}.
+     */
+    DOUBLE,
+    /**
+     * Double-double precision, {@link MandelbrotProcessorDoubleDouble}.
+     */
+    DOUBLE_DOUBLE,
+    /**
+     * Perturbation around a reference orbit,
+     * {@link MandelbrotProcessorPerturbation}.
+     */
+    PERTURBATION,
+    /**
+     * Perturbation with extended exponent offsets,
+     * {@link MandelbrotProcessorFloatExp}.
+     */
+    FLOAT_EXP
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.mandelbrot;
+
+/**
+ * Defines an allocation-free interface for Mandelbrot set evaluation algorithms.
+ * <p>
+ * This is the primitive-specialized counterpart of {@link MandelbrotProcessor}.
+ * Coordinates are passed as {@code double} values and results are written into a
+ * caller-owned {@link MandelbrotBuffer}, so evaluating a point creates no objects.
+ * It is intended for the hot rendering paths, while {@link MandelbrotProcessor}
+ * remains available for other precisions.
+ * </p>
+ * <p>
+ * Whole spans of points can be evaluated in one call with
+ * {@link #processSpan(double, double, double, int, int, double, MandelbrotBuffer, int)},
+ * which implementations may override with a tighter loop.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public interface PrimitiveMandelbrotProcessor {
+
+    /**
+     * Process the Mandelbrot set for one coordinate in the complex plane.
+     *
+     * @param startX The x-coordinate of the point where the orbit starts.
+     * @param startY The y-coordinate of the point where the orbit starts.
+     * @param maxIteration The maximum number of iterations to be carried out
+     * before a point is considered inside the set.
+     * @param bailout The length from the origin a point must reach before it is
+     * considered outside the set.
+     * @param output The buffer the result is written to.
+     * @param index The index in the buffer the result is written to.
+     */
+    public void processCoordinate(double startX, double startY, int maxIteration,
+            double bailout, MandelbrotBuffer output, int index);
+
+    /**
+     * Process the Mandelbrot set for a horizontal span of evenly spaced
+     * coordinates, such as a scanline. The point at position {@code i} of the
+     * span starts its orbit at {@code (startX + i * stepX, startY)} and its
+     * result is written to index {@code offset + i} of the buffer.
+     *
+     * @param startX The x-coordinate of the first point of the span.
+     * @param stepX The distance along the x-axis between neighbouring points.
+     * @param startY The y-coordinate shared by all points of the span.
+     * @param count The number of points in the span.
+     * @param maxIteration The maximum number of iterations to be carried out
+     * before a point is considered inside the set.
+     * @param bailout The length from the origin a point must reach before it is
+     * considered outside the set.
+     * @param output The buffer the results are written to.
+     * @param offset The index in the buffer the first result is written to.
+     */
+    public default void processSpan(double startX, double stepX, double startY, int count,
+            int maxIteration, double bailout, MandelbrotBuffer output, int offset) {
+        for (int i = 0; i < count; i++) {
+            processCoordinate(startX + i * stepX, startY, maxIteration, bailout, output, offset + i);
+        } //f
+    }
+}
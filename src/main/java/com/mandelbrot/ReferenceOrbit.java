@@ -0,0 +1,192 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.mandelbrot;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * The orbit of a single reference point computed in arbitrary precision.
+ * <p>
+ * The orbit is iterated with {@link BigDecimal} arithmetic at a precision high
+ * enough to resolve the smallest pixel of a deep zoom, then each point of the
+ * orbit is rounded to {@code double} and stored. Perturbation processors use
+ * these stored values to iterate the small offsets of every other pixel from
+ * the reference in plain double precision.
+ * </p>
+ * <p>
+ * The orbit starts at zero and stops when it escapes the bailout, in which case
+ * the escaped point is the last stored, or when the maximum iteration is
+ * reached. Instances are immutable and can be shared by rendering threads.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class ReferenceOrbit {
+
+    /**
+     * Number of decimal digits carried beyond those needed to resolve a pixel.
+     */
+    private static final int GUARD_DIGITS = 12;
+    /**
+     * The x-coordinate of the reference point.
+     */
+    private final BigDecimal centerX;
+    /**
+     * The y-coordinate of the reference point.
+     */
+    private final BigDecimal centerY;
+    /**
+     * The x-coordinates of the orbit, rounded to double.
+     */
+    private final double[] x;
+    /**
+     * The y-coordinates of the orbit, rounded to double.
+     */
+    private final double[] y;
+    /**
+     * The number of points of the orbit stored.
+     */
+    private final int length;
+
+    /**
+     * Compute the orbit of a reference point.
+     *
+     * @param centerX The x-coordinate of the reference point.
+     * @param centerY The y-coordinate of the reference point.
+     * @param maxIteration The maximum number of iterations.
+     * @param bailout The squared length from the origin the orbit must exceed
+     * to escape.
+     * @param precision The number of significant decimal digits to iterate
+     * with.
+     */
+    public ReferenceOrbit(BigDecimal centerX, BigDecimal centerY, int maxIteration,
+            double bailout, int precision) {
+        this.centerX = centerX;
+        this.centerY = centerY;
+
+        double[] orbitX = new double[maxIteration + 1];
+        double[] orbitY = new double[maxIteration + 1];
+        MathContext context = new MathContext(precision);
+
+        BigDecimal zx = BigDecimal.ZERO;
+        BigDecimal zy = BigDecimal.ZERO;
+        int stored = 1;
+
+        for (int i = 0; i < maxIteration; i++) {
+            BigDecimal zx2 = zx.multiply(zx, context);
+            BigDecimal zy2 = zy.multiply(zy, context);
+            BigDecimal zxzy = zx.multiply(zy, context);
+
+            zy = zxzy.add(zxzy, context).add(centerY, context);
+            zx = zx2.subtract(zy2, context).add(centerX, context);
+
+            double dx = zx.doubleValue();
+            double dy = zy.doubleValue();
+            orbitX[stored] = dx;
+            orbitY[stored] = dy;
+            stored++;
+
+            if (dx * dx + dy * dy > bailout) {
+                break;
+            } //i
+        } //f
+
+        this.x = orbitX;
+        this.y = orbitY;
+        this.length = stored;
+    }
+
+    /**
+     * Get the number of significant decimal digits needed to iterate a
+     * reference orbit for a zoom with a certain pixel size.
+     *
+     * @param pixelSpacing The length of the plane that each pixel represents.
+     * @return The precision in decimal digits.
+     */
+    public static int precisionFor(double pixelSpacing) {
+        int digits = (int) Math.ceil(-Math.log10(pixelSpacing));
+        return Math.max(digits, 17) + GUARD_DIGITS;
+    }
+
+    /**
+     * Get the number of significant decimal digits needed to iterate a
+     * reference orbit for a zoom with pixels too small for a double.
+     *
+     * @param pixelSpacing The length of the plane that each pixel represents.
+     * @return The precision in decimal digits.
+     */
+    public static int precisionFor(FloatExp pixelSpacing) {
+        int digits = (int) Math.ceil(-pixelSpacing.log2() * Math.log10(2.0));
+        return Math.max(digits, 17) + GUARD_DIGITS;
+    }
+
+    /**
+     * Get the x-coordinate of the reference point.
+     *
+     * @return The x-coordinate of the reference point.
+     */
+    public BigDecimal getCenterX() {
+        return centerX;
+    }
+
+    /**
+     * Get the y-coordinate of the reference point.
+     *
+     * @return The y-coordinate of the reference point.
+     */
+    public BigDecimal getCenterY() {
+        return centerY;
+    }
+
+    /**
+     * Get the number of points of the orbit stored, including the starting
+     * point zero.
+     *
+     * @return The length of the orbit.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Get the x-coordinate of a point of the orbit.
+     *
+     * @param iteration The iteration of the point, 0 is the starting point.
+     * @return The x-coordinate of the point rounded to double.
+     */
+    public double getX(int iteration) {
+        return x[iteration];
+    }
+
+    /**
+     * Get the y-coordinate of a point of the orbit.
+     *
+     * @param iteration The iteration of the point, 0 is the starting point.
+     * @return The y-coordinate of the point rounded to double.
+     */
+    public double getY(int iteration) {
+        return y[iteration];
+    }
+}
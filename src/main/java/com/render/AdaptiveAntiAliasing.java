@@ -0,0 +1,359 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.render;
+
+import com.graph.PixelToDoubleCartesian;
+import com.mandelbrot.MandelbrotBuffer;
+import com.mandelbrot.MandelbrotProcessors;
+import com.mandelbrot.PrimitiveMandelbrotProcessor;
+import com.utils.ColorUtils;
+
+/**
+ * Anti-aliased rendering that only supersamples the pixels that need it.
+ * <p>
+ * {@link FrameRenderer#renderAntiAliased} takes {@code aaFactor²} samples for
+ * every pixel, though most pixels lie in the interior of the set or in smooth
+ * escape bands where extra samples change nothing. This renderer first takes
+ * one sample at the center of each pixel. Pixels whose color differs from a
+ * neighbour's by more than a threshold, whose iteration count differs by more
+ * than a threshold, or where one is in the set and the other isn't, are
+ * resampled on a finer grid.
+ * </p>
+ * <p>
+ * Resampling happens in stages of increasing grid size, such as 2x2 then
+ * 4x4. After the first stage only pixels whose own samples still disagree go
+ * on to the next, so the finest grid is spent on the few pixels on the
+ * boundary of the set. Each stage starts from fresh samples, since the grids
+ * don't line up.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class AdaptiveAntiAliasing {
+
+    /**
+     * Default largest difference of any color channel between neighbours
+     * that is not resampled.
+     */
+    public static final int DEFAULT_COLOR_THRESHOLD = 8;
+    /**
+     * Default largest difference of iteration counts between neighbours that
+     * is not resampled.
+     */
+    public static final int DEFAULT_ITERATION_THRESHOLD = 16;
+
+    /**
+     * Renders the passes tile by tile.
+     */
+    private final FrameRenderer renderer;
+    /**
+     * The width and height of the sample grid of each stage.
+     */
+    private final int[] stages;
+    /**
+     * Largest difference of any color channel that is not resampled.
+     */
+    private final int colorThreshold;
+    /**
+     * Largest difference of iteration counts that is not resampled.
+     */
+    private final int iterationThreshold;
+
+    /**
+     * Create new instance of AdaptiveAntiAliasing with the default thresholds,
+     * resampling up to a grid of aaFactor by aaFactor.
+     *
+     * @param aaFactor The aa factor of the finest stage.
+     */
+    public AdaptiveAntiAliasing(int aaFactor) {
+        this(new FrameRenderer(), stagesFor(aaFactor), DEFAULT_COLOR_THRESHOLD,
+                DEFAULT_ITERATION_THRESHOLD);
+    }
+
+    /**
+     * Create new instance of AdaptiveAntiAliasing.
+     *
+     * @param renderer Renders the passes tile by tile.
+     * @param stages The width and height of the sample grid of each stage, in
+     * increasing order.
+     * @param colorThreshold Largest difference of any color channel that is
+     * not resampled.
+     * @param iterationThreshold Largest difference of iteration counts that is
+     * not resampled.
+     */
+    public AdaptiveAntiAliasing(FrameRenderer renderer, int[] stages, int colorThreshold,
+            int iterationThreshold) {
+        for (int i = 0; i < stages.length; i++) {
+            if (stages[i] < 2 || (i > 0 && stages[i] <= stages[i - 1])) {
+                throw new IllegalArgumentException("Stages must be increasing and at least 2!");
+            } //i
+        } //f
+
+        this.renderer = renderer;
+        this.stages = stages.clone();
+        this.colorThreshold = colorThreshold;
+        this.iterationThreshold = iterationThreshold;
+    }
+
+    /**
+     * Get the stages that resample up to a given aa factor: a 2x2 grid first,
+     * then the full grid if it is larger.
+     *
+     * @param aaFactor The aa factor of the finest stage.
+     * @return The width and height of the sample grid of each stage.
+     */
+    public static int[] stagesFor(int aaFactor) {
+        if (aaFactor < 2) {
+            return new int[0];
+        } //i
+
+        return aaFactor == 2 ? new int[]{2} : new int[]{2, aaFactor};
+    }
+
+    /**
+     * Render an anti-aliased frame of the Mandelbrot set using the fastest
+     * double precision processor.
+     *
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param coloring The coloring algorithm.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @return The pixels of the frame scanned in an x-first fashion.
+     */
+    public int[] render(int width, int height, MandelbrotColoring coloring, int maxIteration,
+            double bailout, PixelToDoubleCartesian convert) {
+        return render(MandelbrotProcessors.createPrimitive(), width, height, coloring,
+                maxIteration, bailout, convert);
+    }
+
+    /**
+     * Render an anti-aliased frame of the Mandelbrot set using a given
+     * Mandelbrot processor. The converter must produce the coordinates the
+     * processor expects.
+     *
+     * @param processor The Mandelbrot processor, shared by all tiles.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param coloring The coloring algorithm.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @return The pixels of the frame scanned in an x-first fashion.
+     */
+    public int[] render(PrimitiveMandelbrotProcessor processor, int width, int height,
+            MandelbrotColoring coloring, int maxIteration, double bailout,
+            PixelToDoubleCartesian convert) {
+        int[] raster = new int[width * height];
+        MandelbrotBuffer centers = new MandelbrotBuffer(width * height);
+        double stepX = convert.getXPlanePerPixel();
+
+        // One sample at the center of every pixel
+        renderer.render(width, height, raster, (x, y, tileWidth, tileHeight, pixels, scanline) -> {
+            for (int row = y; row < y + tileHeight; row++) {
+                int offset = x + row * scanline;
+                processor.processSpan(convert.toPlaneX(x), stepX, convert.toPlaneY(row),
+                        tileWidth, maxIteration, bailout, centers, offset);
+                for (int i = offset; i < offset + tileWidth; i++) {
+                    pixels[i] = coloring.getColor(centers, i);
+                } //f
+            } //f
+        });
+
+        if (stages.length == 0) {
+            return raster;
+        } //i
+
+        // Pixels that differ from a neighbour, decided before any are changed
+        boolean[] marked = new boolean[width * height];
+        renderer.render(width, height, raster, (x, y, tileWidth, tileHeight, pixels, scanline) -> {
+            for (int row = y; row < y + tileHeight; row++) {
+                for (int column = x; column < x + tileWidth; column++) {
+                    marked[column + row * scanline] = isEdge(centers, pixels, column, row,
+                            width, height);
+                } //f
+            } //f
+        });
+
+        for (int stage = 0; stage < stages.length; stage++) {
+            int aaFactor = stages[stage];
+            boolean last = stage == stages.length - 1;
+            renderer.render(width, height, raster, (x, y, tileWidth, tileHeight, pixels, scanline) -> {
+                MandelbrotBuffer buffer = new MandelbrotBuffer(tileWidth * aaFactor * aaFactor);
+                for (int row = y; row < y + tileHeight; row++) {
+                    int offset = row * scanline;
+                    int column = x;
+                    while (column < x + tileWidth) {
+                        if (!marked[offset + column]) {
+                            column++;
+                            continue;
+                        } //i
+
+                        // Sample each run of marked pixels as one span per row of samples
+                        int start = column;
+                        while (column < x + tileWidth && marked[offset + column]) {
+                            column++;
+                        } //w
+                        int count = column - start;
+                        int rowSamples = count * aaFactor;
+                        sample(processor, start, row, count, maxIteration, bailout, aaFactor,
+                                convert, buffer);
+
+                        for (int i = 0; i < count; i++) {
+                            int index = offset + start + i;
+                            pixels[index] = AntiAliasing.averageColor(coloring, buffer,
+                                    i * aaFactor, 1, rowSamples, aaFactor);
+                            marked[index] = !last && !isUniform(coloring, buffer,
+                                    i * aaFactor, rowSamples, aaFactor);
+                        } //f
+                    } //w
+                } //f
+            });
+        } //f
+
+        return raster;
+    }
+
+    /**
+     * Sample a horizontal run of pixels, each on the grid
+     * {@link AntiAliasing#antiAliasedSpan} uses, so a fully resampled pixel
+     * matches full supersampling.
+     *
+     * @param processor The Mandelbrot processor.
+     * @param x The x-coordinate of the first pixel of the run.
+     * @param y The y-coordinate of the run.
+     * @param count The number of pixels in the run.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param aaFactor The width and height of the grid.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @param buffer Buffer the samples are written to, row by row across the
+     * whole run.
+     */
+    private static void sample(PrimitiveMandelbrotProcessor processor, int x, int y,
+            int count, int maxIteration, double bailout, int aaFactor, PixelToDoubleCartesian convert,
+            MandelbrotBuffer buffer) {
+        double aaJump = 1.0 / (double) aaFactor;
+        double startX = convert.toPlaneX(x - aaJump);
+        double stepX = aaJump * convert.getXPlanePerPixel();
+
+        int rowSamples = count * aaFactor;
+
+        double aaY = -aaJump;
+        for (int j = 0; j < aaFactor; j++) {
+            double yAA = convert.toPlaneY(y + aaY);
+            processor.processSpan(startX, stepX, yAA, rowSamples, maxIteration, bailout,
+                    buffer, j * rowSamples);
+            aaY += aaJump;
+        } //f
+    }
+
+    /**
+     * Determine if a pixel differs from any of its eight neighbours.
+     *
+     * @param centers The center sample of every pixel.
+     * @param pixels The color of every pixel.
+     * @param x The x-coordinate of the pixel.
+     * @param y The y-coordinate of the pixel.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @return True if the pixel needs resampling.
+     */
+    private boolean isEdge(MandelbrotBuffer centers, int[] pixels, int x, int y,
+            int width, int height) {
+        int index = x + y * width;
+        for (int j = Math.max(0, y - 1); j <= Math.min(height - 1, y + 1); j++) {
+            for (int i = Math.max(0, x - 1); i <= Math.min(width - 1, x + 1); i++) {
+                int other = i + j * width;
+                if (differs(centers, index, other)
+                        || colorDistance(pixels[index], pixels[other]) > colorThreshold) {
+                    return true;
+                } //i
+            } //f
+        } //f
+
+        return false;
+    }
+
+    /**
+     * Determine if the samples of a pixel disagree enough to resample it on a
+     * finer grid.
+     *
+     * @param coloring The coloring algorithm.
+     * @param buffer Buffer holding the samples.
+     * @param first Index of the first sample of the pixel.
+     * @param rowStride Distance in the buffer between rows of samples.
+     * @param aaFactor The width and height of the grid.
+     * @return True if all samples agree.
+     */
+    private boolean isUniform(MandelbrotColoring coloring, MandelbrotBuffer buffer,
+            int first, int rowStride, int aaFactor) {
+        int color = coloring.getColor(buffer, first);
+        for (int j = 0; j < aaFactor; j++) {
+            for (int i = 0; i < aaFactor; i++) {
+                int index = first + j * rowStride + i;
+                if (differs(buffer, first, index)
+                        || colorDistance(color, coloring.getColor(buffer, index)) > colorThreshold) {
+                    return false;
+                } //i
+            } //f
+        } //f
+
+        return true;
+    }
+
+    /**
+     * Determine if two samples are on different sides of the boundary of the
+     * set, or far apart in iterations.
+     *
+     * @param buffer The buffer holding the samples.
+     * @param a The index of the first sample.
+     * @param b The index of the second sample.
+     * @return True if they differ.
+     */
+    private boolean differs(MandelbrotBuffer buffer, int a, int b) {
+        boolean inSet = buffer.isInSet(a);
+        if (inSet != buffer.isInSet(b)) {
+            return true;
+        } //i
+
+        return !inSet
+                && Math.abs(buffer.getIterations(a) - buffer.getIterations(b)) > iterationThreshold;
+    }
+
+    /**
+     * Get the largest difference of any channel of two colors.
+     *
+     * @param a The first color.
+     * @param b The second color.
+     * @return The largest channel difference.
+     */
+    private static int colorDistance(int a, int b) {
+        int red = Math.abs(ColorUtils.getRed(a) - ColorUtils.getRed(b));
+        int green = Math.abs(ColorUtils.getGreen(a) - ColorUtils.getGreen(b));
+        int blue = Math.abs(ColorUtils.getBlue(a) - ColorUtils.getBlue(b));
+        return Math.max(red, Math.max(green, blue));
+    }
+}
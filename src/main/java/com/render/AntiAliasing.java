@@ -23,10 +23,9 @@
 package com.render;
 
 import com.graph.PixelToDoubleCartesian;
-import com.mandelbrot.MandelbrotInput;
-import com.mandelbrot.MandelbrotOutput;
-import com.mandelbrot.MandelbrotProcessor;
-import com.mandelbrot.MandelbrotProcessorDouble;
+import com.mandelbrot.MandelbrotBuffer;
+import com.mandelbrot.MandelbrotProcessors;
+import com.mandelbrot.PrimitiveMandelbrotProcessor;
 import com.utils.ColorUtils;
 
 /**
@@ -50,7 +49,7 @@ public class AntiAliasing {
     /**
      * Mandelbrot processing algorithm.
      */
-    private static final MandelbrotProcessor<Double> processor = new MandelbrotProcessorDouble();
+    private static final PrimitiveMandelbrotProcessor processor = MandelbrotProcessors.createPrimitive();
 
     /**
      * Get the anti-aliased color for a pixel for a double precision mandelbrot
@@ -68,52 +67,206 @@ public class AntiAliasing {
     public static int antiAliasedRenderingDouble(double x, double y,
             MandelbrotColoring coloring, int maxIteration,
             double bailout, int aaFactor, PixelToDoubleCartesian convert) {
+        return antiAliasedRenderingDouble(x, y, coloring, maxIteration, bailout,
+                aaFactor, convert, new MandelbrotBuffer(aaFactor * aaFactor));
+    }
+
+    /**
+     * Get the anti-aliased color for a pixel for a double precision mandelbrot
+     * processor, reusing a caller-owned buffer for the samples so no objects
+     * are created per sample. Each row of samples is evaluated as one span.
+     *
+     * @param x The x-coordinate of the pixel.
+     * @param y The y-coordinate of the pixel.
+     * @param coloring The coloring algorithm.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param aaFactor The aa factor.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @param buffer Buffer the samples are written to, owned by the calling
+     * thread. Must hold at least aaFactor * aaFactor points.
+     * @return The anti-aliased color for a pixel.
+     */
+    public static int antiAliasedRenderingDouble(double x, double y,
+            MandelbrotColoring coloring, int maxIteration,
+            double bailout, int aaFactor, PixelToDoubleCartesian convert,
+            MandelbrotBuffer buffer) {
+        double aaJump = 1.0 / (double) aaFactor;
+        double startX = convert.toPlaneX(x - aaJump);
+        double stepX = aaJump * convert.getXPlanePerPixel();
+
+        double aaY = -aaJump;
+        for (int j = 0; j < aaFactor; j++) {
+            double yAA = convert.toPlaneY(y + aaY);
+            processor.processSpan(startX, stepX, yAA, aaFactor,
+                    maxIteration, bailout, buffer, j * aaFactor);
+            aaY += aaJump;
+        } //f
+
+        return averageColor(coloring, buffer, 0, 1, aaFactor, aaFactor);
+    }
+
+    /**
+     * Get the anti-aliased colors for a whole row of pixels for a double
+     * precision mandelbrot processor. Each row of samples across the image is
+     * evaluated as a single span, which is considerably cheaper than
+     * evaluating pixel by pixel.
+     *
+     * @param y The y-coordinate of the row.
+     * @param width The number of pixels in the row.
+     * @param coloring The coloring algorithm.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param aaFactor The aa factor.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @param buffer Buffer the samples are written to, owned by the calling
+     * thread. Must hold at least width * aaFactor * aaFactor points.
+     * @param pixels Array the colors are written to.
+     * @param offset Index in the array of the first pixel of the row.
+     */
+    public static void antiAliasedRowDouble(int y, int width,
+            MandelbrotColoring coloring, int maxIteration,
+            double bailout, int aaFactor, PixelToDoubleCartesian convert,
+            MandelbrotBuffer buffer, int[] pixels, int offset) {
+        antiAliasedSpanDouble(0, y, width, coloring, maxIteration, bailout,
+                aaFactor, convert, buffer, pixels, offset);
+    }
+
+    /**
+     * Get the anti-aliased colors for a horizontal span of pixels for a double
+     * precision mandelbrot processor. Each row of samples across the span is
+     * evaluated as a single span of the processor.
+     *
+     * @param x The x-coordinate of the first pixel of the span.
+     * @param y The y-coordinate of the span.
+     * @param count The number of pixels in the span.
+     * @param coloring The coloring algorithm.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param aaFactor The aa factor.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @param buffer Buffer the samples are written to, owned by the calling
+     * thread. Must hold at least count * aaFactor * aaFactor points.
+     * @param pixels Array the colors are written to.
+     * @param offset Index in the array of the first pixel of the span.
+     */
+    public static void antiAliasedSpanDouble(int x, int y, int count,
+            MandelbrotColoring coloring, int maxIteration,
+            double bailout, int aaFactor, PixelToDoubleCartesian convert,
+            MandelbrotBuffer buffer, int[] pixels, int offset) {
+        antiAliasedSpan(processor, x, y, count, coloring, maxIteration, bailout,
+                aaFactor, convert, buffer, pixels, offset);
+    }
+
+    /**
+     * Get the anti-aliased colors for a horizontal span of pixels using a
+     * given Mandelbrot processor, such as a perturbation processor for deep
+     * zooms. The converter must produce the coordinates the processor expects.
+     *
+     * @param processor The Mandelbrot processor.
+     * @param x The x-coordinate of the first pixel of the span.
+     * @param y The y-coordinate of the span.
+     * @param count The number of pixels in the span.
+     * @param coloring The coloring algorithm.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param aaFactor The aa factor.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @param buffer Buffer the samples are written to, owned by the calling
+     * thread. Must hold at least count * aaFactor * aaFactor points.
+     * @param pixels Array the colors are written to.
+     * @param offset Index in the array of the first pixel of the span.
+     */
+    public static void antiAliasedSpan(PrimitiveMandelbrotProcessor processor,
+            int x, int y, int count, MandelbrotColoring coloring, int maxIteration,
+            double bailout, int aaFactor, PixelToDoubleCartesian convert,
+            MandelbrotBuffer buffer, int[] pixels, int offset) {
+        double aaJump = 1.0 / (double) aaFactor;
+        int rowSamples = count * aaFactor;
+        double startX = convert.toPlaneX(x - aaJump);
+        double stepX = aaJump * convert.getXPlanePerPixel();
+
+        double aaY = -aaJump;
+        for (int j = 0; j < aaFactor; j++) {
+            double yAA = convert.toPlaneY(y + aaY);
+            processor.processSpan(startX, stepX, yAA, rowSamples,
+                    maxIteration, bailout, buffer, j * rowSamples);
+            aaY += aaJump;
+        } //f
+
+        int[] colors = new int[rowSamples * aaFactor];
+        coloring.colorize(buffer, 0, colors.length, colors, 0);
+        for (int i = 0; i < count; i++) {
+            pixels[offset + i] = averageColor(colors, i * aaFactor, rowSamples, aaFactor);
+        } //f
+    }
+
+    /**
+     * Average a square block of sample colors.
+     *
+     * @param colors The colors of the samples.
+     * @param first Index of the first sample of the block.
+     * @param rowStride Distance in the array between rows of samples.
+     * @param aaFactor The aa factor, the width and height of the block.
+     * @return The average color of the block.
+     */
+    static int averageColor(int[] colors, int first, int rowStride, int aaFactor) {
         int alpha = 0;
         int red = 0;
         int green = 0;
         int blue = 0;
 
-        double aaJump = 1.0 / (double) aaFactor;
+        for (int j = 0; j < aaFactor; j++) {
+            int index = first + j * rowStride;
+            for (int i = 0; i < aaFactor; i++) {
+                int rgb = colors[index + i];
+                alpha += ColorUtils.getAlpha(rgb);
+                red += ColorUtils.getRed(rgb);
+                green += ColorUtils.getGreen(rgb);
+                blue += ColorUtils.getBlue(rgb);
+            } //f
+        } //f
+
         int aaDivide = aaFactor * aaFactor;
+        alpha /= aaDivide;
+        red /= aaDivide;
+        green /= aaDivide;
+        blue /= aaDivide;
 
-        double aaX = -aaJump;
-        double aaY = -aaJump;
+        return ColorUtils.toARGB(alpha, red, green, blue);
+    }
+
+    /**
+     * Color a square block of samples held in a buffer and average them.
+     *
+     * @param coloring The coloring algorithm.
+     * @param buffer Buffer holding the samples.
+     * @param first Index of the first sample of the block.
+     * @param step Distance in the buffer between samples in the same row.
+     * @param rowStride Distance in the buffer between rows of samples.
+     * @param aaFactor The aa factor, the width and height of the block.
+     * @return The average color of the block.
+     */
+    static int averageColor(MandelbrotColoring coloring, MandelbrotBuffer buffer,
+            int first, int step, int rowStride, int aaFactor) {
+        int alpha = 0;
+        int red = 0;
+        int green = 0;
+        int blue = 0;
 
-        MandelbrotInput<Double> input = null;
-        MandelbrotOutput<Double> output;
-
-        for (int i = 0; i < aaFactor; i++) {
-            for (int j = 0; j < aaFactor; j++) {
-                double zx = x + aaX;
-                double zy = y + aaY;
-
-                double xAA = convert.convertX(zx);
-                double yAA = convert.convertY(zy);
-
-                //public MandelbrotInput(Coordinate<T> start, int maxIteration, double bailout) {
-                if (input == null) {
-                    input = new MandelbrotInput<>(xAA, yAA,
-                            maxIteration, bailout);
-                    output = processor.processCoordinate(input);
-                } else {
-                    input.setStartX(xAA);
-                    input.setStartY(yAA);
-                    output = processor.processCoordinate(input);
-                } //ie
-
-                int rgb = coloring.getColor(output);
+        for (int j = 0; j < aaFactor; j++) {
+            int index = first + j * rowStride;
+            for (int i = 0; i < aaFactor; i++) {
+                int rgb = coloring.getColor(buffer, index);
                 alpha += ColorUtils.getAlpha(rgb);
                 red += ColorUtils.getRed(rgb);
                 green += ColorUtils.getGreen(rgb);
                 blue += ColorUtils.getBlue(rgb);
-
-                aaY += aaJump;
+                index += step;
             } //f
-
-            aaY = -aaJump;
-            aaX += aaJump;
         } //f
 
+        int aaDivide = aaFactor * aaFactor;
         alpha /= aaDivide;
         red /= aaDivide;
         green /= aaDivide;
@@ -0,0 +1,230 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.render;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Encodes frames as PNG files on a pool of background threads.
+ * <p>
+ * Frames handed to {@link #write(int[], int, int, File)} are compressed and
+ * written by encoder threads while the caller goes on rendering, so rendering
+ * and compression of different frames overlap. At most a fixed number of
+ * frames may be waiting or being encoded; beyond that {@code write} blocks
+ * until an encoder finishes, which bounds memory when encoding falls behind.
+ * </p>
+ * <p>
+ * Each file is written under a temporary name and renamed into place once
+ * complete, so a file that exists is always a whole frame and can be skipped
+ * when an interrupted render is resumed. The first encoding error is thrown
+ * by the next call to {@code write} or by {@link #close()}.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class AsyncPngWriter implements AutoCloseable {
+
+    /**
+     * Default deflate level, the same as ImageIO uses.
+     */
+    public static final int DEFAULT_DEFLATE_LEVEL = 4;
+    /**
+     * Suffix of files being written.
+     */
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * The encoder threads.
+     */
+    private final ExecutorService encoders;
+    /**
+     * One permit per frame that may be waiting or being encoded.
+     */
+    private final Semaphore slots;
+    /**
+     * The deflate level, from 0 (none) to 9 (smallest).
+     */
+    private final int deflateLevel;
+    /**
+     * The first error from an encoder, null if none.
+     */
+    private volatile IOException failure;
+    /**
+     * Whether the writer has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Create new instance of AsyncPngWriter.
+     *
+     * @param threads The number of encoder threads.
+     * @param queueCapacity The number of frames that may wait for an encoder.
+     * @param deflateLevel The deflate level, from 0 (none) to 9 (smallest).
+     */
+    public AsyncPngWriter(int threads, int queueCapacity, int deflateLevel) {
+        if (deflateLevel < 0 || deflateLevel > 9) {
+            throw new IllegalArgumentException("Deflate level must be from 0 to 9!");
+        } //i
+
+        AtomicInteger count = new AtomicInteger();
+        this.encoders = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "png-encoder-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.slots = new Semaphore(threads + queueCapacity);
+        this.deflateLevel = deflateLevel;
+    }
+
+    /**
+     * Queue a frame to be written as a PNG file, waiting if too many frames
+     * are already queued. The array is read later by an encoder, so it must
+     * not be changed afterwards.
+     *
+     * @param pixels The ARGB pixels of the frame scanned in an x-first
+     * fashion.
+     * @param width The width of the frame.
+     * @param height The height of the frame.
+     * @param file The file to write.
+     * @throws IOException If an earlier frame failed to be written or the
+     * writer is closed.
+     * @throws InterruptedException If interrupted while waiting for an
+     * encoder.
+     */
+    public void write(int[] pixels, int width, int height, File file)
+            throws IOException, InterruptedException {
+        if (closed) {
+            throw new IOException("PNG writer closed!");
+        } //i
+
+        checkFailure();
+        slots.acquire();
+        encoders.execute(() -> {
+            try {
+                encode(pixels, width, height, file);
+            } catch (IOException | RuntimeException ex) {
+                if (failure == null) {
+                    failure = ex instanceof IOException ? (IOException) ex
+                            : new IOException("Failed to encode " + file, ex);
+                } //i
+            } finally {
+                slots.release();
+            } //tf
+        });
+    }
+
+    /**
+     * Wait for every queued frame to be written and stop the encoders.
+     *
+     * @throws IOException If a frame failed to be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        } //i
+        closed = true;
+
+        encoders.shutdown();
+        try {
+            while (!encoders.awaitTermination(1, TimeUnit.MINUTES)) {
+                System.out.println("Waiting for PNG encoders...");
+            } //w
+        } catch (InterruptedException ex) {
+            encoders.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing frames", ex);
+        } //tc
+
+        checkFailure();
+    }
+
+    /**
+     * Throw the first error from an encoder, if any.
+     *
+     * @throws IOException The first error from an encoder.
+     */
+    private void checkFailure() throws IOException {
+        IOException error = failure;
+        if (error != null) {
+            throw new IOException("Frame encoding failed", error);
+        } //i
+    }
+
+    /**
+     * Compress a frame and write it to a temporary file, then rename it into
+     * place.
+     *
+     * @param pixels The ARGB pixels of the frame.
+     * @param width The width of the frame.
+     * @param height The height of the frame.
+     * @param file The file to write.
+     * @throws IOException If the file can't be written.
+     */
+    private void encode(int[] pixels, int width, int height, File file) throws IOException {
+        BufferedImage image = RenderUtils.wrapPixels(pixels, width, height);
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("png");
+        if (!writers.hasNext()) {
+            throw new IOException("No PNG writer available!");
+        } //i
+        ImageWriter writer = writers.next();
+
+        try {
+            Files.deleteIfExists(temp);
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                // The PNG writer uses deflate level (int) (9 * (1 - quality))
+                param.setCompressionQuality(Math.max(0.0f, 1.0f - (deflateLevel + 0.5f) / 9.0f));
+
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } //tc
+        } finally {
+            writer.dispose();
+        } //tf
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+}
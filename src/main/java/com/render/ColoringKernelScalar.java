@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.render;
+
+/**
+ * Scalar implementation of {@link ColoringKernel}, used when the vector
+ * module isn't enabled and for the tail of a vector span.
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+class ColoringKernelScalar implements ColoringKernel {
+
+    /**
+     * The square root of 2, the top of the range the mantissa is reduced to.
+     */
+    static final double SQRT2 = Math.sqrt(2.0);
+    /**
+     * One over the natural log of 2.
+     */
+    static final double INV_LN2 = 1.0 / Math.log(2.0);
+    /**
+     * Coefficient of s^2 of the series.
+     */
+    static final double C3 = 1.0 / 3.0;
+    /**
+     * Coefficient of s^4 of the series.
+     */
+    static final double C5 = 1.0 / 5.0;
+    /**
+     * Coefficient of s^6 of the series.
+     */
+    static final double C7 = 1.0 / 7.0;
+    /**
+     * Bits of the mantissa of a double.
+     */
+    static final long MANTISSA_MASK = 0x000fffffffffffffL;
+    /**
+     * Bits of the exponent of 1.0.
+     */
+    static final long ONE_BITS = 0x3ff0000000000000L;
+
+    @Override
+    public void normalizedIterationCounts(double[] magnitudes, int count, double constant,
+            double[] counts) {
+        normalizedIterationCounts(magnitudes, 0, count, constant, counts);
+    }
+
+    /**
+     * Compute the normalized iteration count of a range of samples.
+     *
+     * @param magnitudes The squared length of where each orbit ended.
+     * @param first The first sample of the range.
+     * @param last One past the last sample of the range.
+     * @param constant The part of the count that depends on the bailout.
+     * @param counts Array the counts are written to.
+     */
+    static void normalizedIterationCounts(double[] magnitudes, int first, int last,
+            double constant, double[] counts) {
+        for (int i = first; i < last; i++) {
+            counts[i] = constant - log2(log2(magnitudes[i]));
+        } //f
+    }
+
+    /**
+     * Fast base 2 logarithm of a positive, normal double.
+     *
+     * @param value The value.
+     * @return The base 2 logarithm, within about {@code 1e-7}.
+     */
+    static double log2(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        double exponent = ((bits >>> 52) & 0x7ff) - 1023;
+        double mantissa = Double.longBitsToDouble((bits & MANTISSA_MASK) | ONE_BITS);
+        if (mantissa > SQRT2) {
+            mantissa *= 0.5;
+            exponent += 1.0;
+        } //i
+
+        double s = (mantissa - 1.0) / (mantissa + 1.0);
+        double s2 = s * s;
+        double series = ((s2 * C7 + C5) * s2 + C3) * s2 + 1.0;
+        return exponent + (s * 2.0) * series * INV_LN2;
+    }
+}
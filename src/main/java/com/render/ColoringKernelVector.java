@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.render;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD implementation of {@link ColoringKernel} using the JDK Vector API.
+ * <p>
+ * The fast logarithm of {@link ColoringKernelScalar} is applied to one sample
+ * per lane, with the same operations in the same order, so both kernels give
+ * the same results. This class requires the {@code jdk.incubator.vector}
+ * module and is loaded reflectively by {@link MandelbrotColoring}.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+class ColoringKernelVector implements ColoringKernel {
+
+    /**
+     * The widest vector shape supported by the hardware.
+     */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    /**
+     * The number of samples computed together.
+     */
+    private static final int LANES = SPECIES.length();
+
+    @Override
+    public void normalizedIterationCounts(double[] magnitudes, int count, double constant,
+            double[] counts) {
+        int i = 0;
+        for (; i + LANES <= count; i += LANES) {
+            DoubleVector magnitude = DoubleVector.fromArray(SPECIES, magnitudes, i);
+            log2(log2(magnitude)).neg().add(constant).intoArray(counts, i);
+        } //f
+
+        ColoringKernelScalar.normalizedIterationCounts(magnitudes, i, count, constant, counts);
+    }
+
+    /**
+     * Fast base 2 logarithm of each lane, see
+     * {@link ColoringKernelScalar#log2(double)}.
+     *
+     * @param value Positive, normal values.
+     * @return The base 2 logarithms.
+     */
+    private static DoubleVector log2(DoubleVector value) {
+        LongVector bits = value.reinterpretAsLongs();
+        DoubleVector exponent = ((DoubleVector) bits.lanewise(VectorOperators.LSHR, 52)
+                .and(0x7ffL).sub(1023L).convert(VectorOperators.L2D, 0));
+        DoubleVector mantissa = bits.and(ColoringKernelScalar.MANTISSA_MASK)
+                .or(ColoringKernelScalar.ONE_BITS).reinterpretAsDoubles();
+
+        VectorMask<Double> high = mantissa.compare(VectorOperators.GT, ColoringKernelScalar.SQRT2);
+        mantissa = mantissa.blend(mantissa.mul(0.5), high);
+        exponent = exponent.blend(exponent.add(1.0), high);
+
+        DoubleVector s = mantissa.sub(1.0).div(mantissa.add(1.0));
+        DoubleVector s2 = s.mul(s);
+        DoubleVector series = s2.mul(ColoringKernelScalar.C7).add(ColoringKernelScalar.C5)
+                .mul(s2).add(ColoringKernelScalar.C3).mul(s2).add(1.0);
+        return exponent.add(s.mul(2.0).mul(series).mul(ColoringKernelScalar.INV_LN2));
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.render;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
+/**
+ * Shares the frames of a job between processes through a directory.
+ * <p>
+ * A worker claims a frame by creating its lease file in the {@code leases}
+ * folder of the job directory. File creation is atomic, so only one worker
+ * gets each lease, even across machines sharing the directory. While a frame
+ * is rendered a heartbeat thread touches its lease. A lease that hasn't been
+ * touched for the lease time belongs to a worker that died or lost the
+ * directory. It is renamed aside, which only one worker can do, and the frame
+ * is claimed again. Frames are done when their output exists, so outputs must
+ * be written atomically, as {@link AsyncPngWriter} does. A lease is kept until
+ * its output appears, and is then dropped by the next {@link #claim()}.
+ * </p>
+ * <p>
+ * The heartbeat only shows that the worker process is alive, not that its
+ * render is moving. A render that hangs in a live process keeps its lease
+ * until that process is stopped. Leases hold the name of their worker, and a
+ * worker only renews or deletes leases that still hold its name. A worker that
+ * lost a lease therefore can't touch the lease of whoever reclaimed the frame.
+ * </p>
+ * <p>
+ * Expiry compares file times with the local clock, so the lease time must be
+ * well above the clock skew between machines. If a slow worker does lose a
+ * lease its frame is rendered twice, which wastes time but gives the same
+ * file. No process coordinates the workers. A coordinator only has to wait for
+ * every frame to be done.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class FrameLeaseQueue implements AutoCloseable {
+
+    /**
+     * Default time a lease stays valid without a heartbeat, in milliseconds.
+     */
+    public static final long DEFAULT_LEASE_MILLIS = 60000;
+    /**
+     * Name of the folder holding the leases.
+     */
+    private static final String LEASE_FOLDER = "leases";
+
+    /**
+     * The folder holding the leases.
+     */
+    private final Path leaseDir;
+    /**
+     * The frames of the job in the order they are claimed.
+     */
+    private final int[] frames;
+    /**
+     * Selects frames whose output already exists.
+     */
+    private final IntPredicate isDone;
+    /**
+     * The time a lease stays valid without a heartbeat, in milliseconds.
+     */
+    private final long leaseMillis;
+    /**
+     * Names this worker in its leases.
+     */
+    private final String owner;
+    /**
+     * The frames this worker holds leases for.
+     */
+    private final Set<Integer> held = ConcurrentHashMap.newKeySet();
+    /**
+     * Touches the held leases.
+     */
+    private final ScheduledExecutorService heartbeat;
+
+    /**
+     * Create new instance of FrameLeaseQueue with the default lease time.
+     *
+     * @param jobDir The directory shared by the workers of the job.
+     * @param frames The frames of the job in the order they are claimed.
+     * @param isDone Selects frames whose output already exists.
+     * @throws IOException If the lease folder can't be created.
+     */
+    public FrameLeaseQueue(Path jobDir, int[] frames, IntPredicate isDone) throws IOException {
+        this(jobDir, frames, isDone, DEFAULT_LEASE_MILLIS);
+    }
+
+    /**
+     * Create new instance of FrameLeaseQueue.
+     *
+     * @param jobDir The directory shared by the workers of the job.
+     * @param frames The frames of the job in the order they are claimed.
+     * @param isDone Selects frames whose output already exists.
+     * @param leaseMillis The time a lease stays valid without a heartbeat, in
+     * milliseconds.
+     * @throws IOException If the lease folder can't be created.
+     */
+    public FrameLeaseQueue(Path jobDir, int[] frames, IntPredicate isDone, long leaseMillis)
+            throws IOException {
+        if (leaseMillis < 3) {
+            throw new IllegalArgumentException("Lease time is too short!");
+        } //i
+
+        this.leaseDir = Files.createDirectories(jobDir.resolve(LEASE_FOLDER));
+        this.frames = frames.clone();
+        this.isDone = isDone;
+        this.leaseMillis = leaseMillis;
+        this.owner = ManagementFactory.getRuntimeMXBean().getName();
+
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = leaseMillis / 3;
+        heartbeat.scheduleAtFixedRate(this::renewAll, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Claim the next frame that is neither done nor leased, waiting for
+     * leases of other workers to finish or expire if every remaining frame is
+     * taken.
+     *
+     * @return The claimed frame, or 0 once every frame is done.
+     * @throws IOException If the lease folder can't be accessed.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public int claim() throws IOException, InterruptedException {
+        while (true) {
+            boolean remaining = false;
+            for (int frame : frames) {
+                if (held.contains(frame)) {
+                    // Held until its output is written
+                    if (isDone.test(frame)) {
+                        release(frame);
+                    } //i
+                    continue;
+                } //i
+                if (isDone.test(frame)) {
+                    continue;
+                } //i
+                remaining = true;
+
+                if (tryClaim(frame)) {
+                    // The previous holder may have finished just before
+                    if (isDone.test(frame)) {
+                        release(frame);
+                        continue;
+                    } //i
+                    return frame;
+                } //i
+            } //f
+
+            if (!remaining) {
+                return 0;
+            } //i
+            Thread.sleep(Math.min(leaseMillis / 3, 1000));
+        } //w
+    }
+
+    /**
+     * Give up the lease of a frame so another worker can claim it, such as
+     * after it failed.
+     *
+     * @param frame The frame.
+     * @throws IOException If the lease can't be deleted.
+     */
+    public void release(int frame) throws IOException {
+        if (held.remove(frame)) {
+            Path lease = leaseFile(frame);
+            if (isOwned(lease)) {
+                Files.deleteIfExists(lease);
+            } //i
+        } //i
+    }
+
+    /**
+     * Stop the heartbeat and give up every lease still held, so other
+     * workers don't have to wait for them to expire.
+     *
+     * @throws IOException If a lease can't be deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        heartbeat.shutdownNow();
+        for (Integer frame : held.toArray(new Integer[0])) {
+            release(frame);
+        } //f
+    }
+
+    /**
+     * Try to create the lease of a frame, first moving aside an expired one.
+     *
+     * @param frame The frame.
+     * @return True if this worker now holds the lease.
+     * @throws IOException If the lease folder can't be accessed.
+     */
+    private boolean tryClaim(int frame) throws IOException {
+        Path lease = leaseFile(frame);
+        try {
+            Files.write(Files.createFile(lease), owner.getBytes(StandardCharsets.UTF_8));
+            held.add(frame);
+            return true;
+        } catch (FileAlreadyExistsException ex) {
+            // Leased, see below if it expired
+        } //tc
+
+        Path stale = leaseDir.resolve(lease.getFileName() + "." + owner.replaceAll("\\W", "_")
+                + ".expired");
+        try {
+            if (!isExpired(Files.getLastModifiedTime(lease))) {
+                return false;
+            } //i
+
+            // Only one worker can move the lease, the others lose the race
+            Files.move(lease, stale, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException ex) {
+            return false;
+        } //tc
+
+        if (!isExpired(Files.getLastModifiedTime(stale))) {
+            // Renewed or reclaimed after it was checked, put it back. A link fails
+            // instead of replacing a lease another worker created meanwhile
+            try {
+                Files.createLink(lease, stale);
+            } catch (FileAlreadyExistsException ex) {
+                // The new lease stands
+            } catch (IOException | UnsupportedOperationException ex) {
+                System.err.printf("Failed to restore lease of frame %d: %s\n", frame, ex);
+            } //tc
+            Files.deleteIfExists(stale);
+            return false;
+        } //i
+
+        System.out.printf("Lease of frame %d expired (%s), reclaiming\n", frame,
+                new String(Files.readAllBytes(stale), StandardCharsets.UTF_8));
+        Files.deleteIfExists(stale);
+        return tryClaim(frame);
+    }
+
+    /**
+     * Determine if a lease has gone too long without a heartbeat.
+     *
+     * @param touched The time the lease was last touched.
+     * @return True if the lease expired.
+     */
+    private boolean isExpired(FileTime touched) {
+        return System.currentTimeMillis() - touched.toMillis() > leaseMillis;
+    }
+
+    /**
+     * Determine if a lease still holds the name of this worker, rather than
+     * having expired and been claimed by another.
+     *
+     * @param lease The lease file.
+     * @return True if this worker owns the lease.
+     * @throws IOException If the lease can't be read.
+     */
+    private boolean isOwned(Path lease) throws IOException {
+        try {
+            return owner.equals(new String(Files.readAllBytes(lease), StandardCharsets.UTF_8));
+        } catch (NoSuchFileException ex) {
+            return false;
+        } //tc
+    }
+
+    /**
+     * Touch the lease of every frame this worker still owns.
+     */
+    private void renewAll() {
+        FileTime now = FileTime.fromMillis(System.currentTimeMillis());
+        for (Integer frame : held) {
+            try {
+                Path lease = leaseFile(frame);
+                if (isOwned(lease)) {
+                    Files.setLastModifiedTime(lease, now);
+                } //i
+            } catch (IOException ex) {
+                System.err.printf("Failed to renew lease of frame %d: %s\n", frame, ex);
+            } //tc
+        } //f
+    }
+
+    /**
+     * Get the lease file of a frame.
+     *
+     * @param frame The frame.
+     * @return The path of the lease.
+     */
+    private Path leaseFile(int frame) {
+        return leaseDir.resolve(String.format("frame_%04d.lease", frame));
+    }
+}
@@ -0,0 +1,480 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.render;
+
+import com.graph.PixelToDoubleCartesian;
+import com.mandelbrot.MandelbrotBuffer;
+import com.mandelbrot.MandelbrotProcessors;
+import com.mandelbrot.PrimitiveMandelbrotProcessor;
+import com.utils.ColorUtils;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Renders frames in parallel by splitting the image into square tiles.
+ * <p>
+ * Tiles are rendered as fork/join tasks on a {@link ForkJoinPool}. The range of
+ * tiles is split in half recursively, so idle threads steal outstanding halves
+ * from busy ones. This balances the load dynamically, which matters because
+ * tiles near the boundary of the set can cost orders of magnitude more than
+ * tiles in flat regions.
+ * </p>
+ * <p>
+ * Results are written straight into an {@code int[]} raster scanned in an
+ * x-first fashion, ready to be copied into or wrapped by an image.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class FrameRenderer {
+
+    /**
+     * Default width and height of a tile in pixels.
+     */
+    public static final int DEFAULT_TILE_SIZE = 32;
+
+    /**
+     * Renders the pixels of one tile.
+     */
+    @FunctionalInterface
+    public interface TileRenderer {
+
+        /**
+         * Render a rectangular tile of the image into the raster.
+         *
+         * @param x The x-coordinate of the top left pixel of the tile.
+         * @param y The y-coordinate of the top left pixel of the tile.
+         * @param width The width of the tile.
+         * @param height The height of the tile.
+         * @param raster The pixels of the image scanned in an x-first fashion.
+         * @param scanline The width of the image, the distance in the raster
+         * between rows.
+         */
+        void renderTile(int x, int y, int width, int height, int[] raster, int scanline);
+    }
+
+    /**
+     * The pool the tiles are rendered on.
+     */
+    private final ForkJoinPool pool;
+    /**
+     * The width and height of a tile in pixels.
+     */
+    private final int tileSize;
+
+    /**
+     * Create new instance of FrameRenderer using the common pool and the
+     * default tile size.
+     */
+    public FrameRenderer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Create new instance of FrameRenderer.
+     *
+     * @param pool The pool the tiles are rendered on.
+     * @param tileSize The width and height of a tile in pixels.
+     */
+    public FrameRenderer(ForkJoinPool pool, int tileSize) {
+        if (tileSize < 1) {
+            throw new IllegalArgumentException("Tile size must be positive!");
+        } //i
+
+        this.pool = pool;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Get the width and height of a tile in pixels.
+     *
+     * @return The tile size.
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Render every tile of an image, blocking until all are finished.
+     *
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param raster The pixels of the image scanned in an x-first fashion.
+     * @param tileRenderer Renders the pixels of one tile.
+     */
+    public void render(int width, int height, int[] raster, TileRenderer tileRenderer) {
+        int tilesX = (width + tileSize - 1) / tileSize;
+        int tilesY = (height + tileSize - 1) / tileSize;
+        if (tilesX <= 0 || tilesY <= 0) {
+            return;
+        } //i
+
+        pool.invoke(new TileTask(0, tilesX * tilesY, tilesX, width, height, raster, tileRenderer));
+    }
+
+    /**
+     * Render an anti-aliased frame of the Mandelbrot set.
+     *
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param coloring The coloring algorithm.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param aaFactor The aa factor.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @return The pixels of the frame scanned in an x-first fashion.
+     */
+    public int[] renderAntiAliased(int width, int height, MandelbrotColoring coloring,
+            int maxIteration, double bailout, int aaFactor, PixelToDoubleCartesian convert) {
+        return renderAntiAliased(MandelbrotProcessors.createPrimitive(), width, height,
+                coloring, maxIteration, bailout, aaFactor, convert);
+    }
+
+    /**
+     * Render an anti-aliased frame of the Mandelbrot set using a given
+     * Mandelbrot processor. The converter must produce the coordinates the
+     * processor expects.
+     *
+     * @param processor The Mandelbrot processor, shared by all tiles.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param coloring The coloring algorithm.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param aaFactor The aa factor.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @return The pixels of the frame scanned in an x-first fashion.
+     */
+    public int[] renderAntiAliased(PrimitiveMandelbrotProcessor processor, int width,
+            int height, MandelbrotColoring coloring, int maxIteration, double bailout,
+            int aaFactor, PixelToDoubleCartesian convert) {
+        int[] raster = new int[width * height];
+        render(width, height, raster, (x, y, tileWidth, tileHeight, pixels, scanline) -> {
+            MandelbrotBuffer buffer = new MandelbrotBuffer(tileWidth * aaFactor * aaFactor);
+            for (int row = y; row < y + tileHeight; row++) {
+                AntiAliasing.antiAliasedSpan(processor, x, row, tileWidth, coloring, maxIteration,
+                        bailout, aaFactor, convert, buffer, pixels, x + row * scanline);
+            } //f
+        });
+
+        return raster;
+    }
+
+    /**
+     * Render a supersampled frame of the Mandelbrot set by evaluating one
+     * lattice of aaFactor by aaFactor samples per pixel and reducing it with
+     * a reconstruction filter.
+     *
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param coloring The coloring algorithm.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param aaFactor The number of samples per pixel along each axis.
+     * @param filter The reconstruction filter.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @return The pixels of the frame scanned in an x-first fashion.
+     */
+    public int[] renderSupersampled(int width, int height, MandelbrotColoring coloring,
+            int maxIteration, double bailout, int aaFactor, ReconstructionFilter filter,
+            PixelToDoubleCartesian convert) {
+        return renderSupersampled(MandelbrotProcessors.createPrimitive(), width, height,
+                coloring, maxIteration, bailout, aaFactor, filter, convert);
+    }
+
+    /**
+     * Render a supersampled frame of the Mandelbrot set using a given
+     * Mandelbrot processor. The converter must produce the coordinates the
+     * processor expects.
+     * <p>
+     * Samples lie on a single lattice over the whole frame, spaced
+     * {@code 1 / aaFactor} of a pixel apart and centered in the pixels, so
+     * each sample is evaluated once however many pixels it contributes to.
+     * Each tile evaluates its part of the lattice plus the few samples beyond
+     * its edges that are inside the support of the filter.
+     * </p>
+     *
+     * @param processor The Mandelbrot processor, shared by all tiles.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param coloring The coloring algorithm.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param aaFactor The number of samples per pixel along each axis.
+     * @param filter The reconstruction filter.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @return The pixels of the frame scanned in an x-first fashion.
+     */
+    public int[] renderSupersampled(PrimitiveMandelbrotProcessor processor, int width,
+            int height, MandelbrotColoring coloring, int maxIteration, double bailout,
+            int aaFactor, ReconstructionFilter filter, PixelToDoubleCartesian convert) {
+        return renderSupersampled(processor, width, height, coloring, maxIteration, bailout,
+                aaFactor, filter, convert, null);
+    }
+
+    /**
+     * Render a supersampled frame of the Mandelbrot set, logging finished
+     * tiles to a journal so an interrupted render can resume. Tiles already
+     * in the journal are read back instead of rendered. The journal must have
+     * been opened for the same frame, tile size and settings.
+     *
+     * @param processor The Mandelbrot processor, shared by all tiles.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param coloring The coloring algorithm.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param aaFactor The number of samples per pixel along each axis.
+     * @param filter The reconstruction filter.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @param journal The journal of the frame, or null to render every tile.
+     * @return The pixels of the frame scanned in an x-first fashion.
+     */
+    public int[] renderSupersampled(PrimitiveMandelbrotProcessor processor, int width,
+            int height, MandelbrotColoring coloring, int maxIteration, double bailout,
+            int aaFactor, ReconstructionFilter filter, PixelToDoubleCartesian convert,
+            TileJournal journal) {
+        // Samples beyond the pixel on each side that the filter reaches
+        int margin = Math.max(0, (int) Math.ceil(aaFactor * (filter.getRadius() - 0.5) - 0.5));
+        int taps = aaFactor + 2 * margin;
+        double[] weights = new double[taps];
+        for (int i = 0; i < taps; i++) {
+            weights[i] = filter.weight((i - margin + 0.5) / aaFactor - 0.5);
+        } //f
+
+        double aaJump = 1.0 / (double) aaFactor;
+        double first = (0.5 - margin) * aaJump - 0.5;
+        double stepX = aaJump * convert.getXPlanePerPixel();
+
+        int[] raster = new int[width * height];
+        TileRenderer tiles = (x, y, tileWidth, tileHeight, pixels, scanline) -> {
+            int latticeWidth = tileWidth * aaFactor + 2 * margin;
+            int latticeHeight = tileHeight * aaFactor + 2 * margin;
+            MandelbrotBuffer buffer = new MandelbrotBuffer(latticeWidth * latticeHeight);
+            double startX = convert.toPlaneX(x + first);
+            for (int j = 0; j < latticeHeight; j++) {
+                processor.processSpan(startX, stepX, convert.toPlaneY(y + first + j * aaJump),
+                        latticeWidth, maxIteration, bailout, buffer, j * latticeWidth);
+            } //f
+
+            int[] colors = new int[latticeWidth * latticeHeight];
+            for (int i = 0; i < colors.length; i++) {
+                colors[i] = coloring.getColor(buffer, i);
+            } //f
+
+            for (int row = 0; row < tileHeight; row++) {
+                for (int column = 0; column < tileWidth; column++) {
+                    pixels[x + column + (y + row) * scanline] = filterColor(colors,
+                            (row * latticeWidth + column) * aaFactor, latticeWidth, weights);
+                } //f
+            } //f
+        };
+        render(width, height, raster, journal == null ? tiles : journal.wrap(tiles));
+
+        return raster;
+    }
+
+    /**
+     * Evaluate every sample of a frame of the Mandelbrot set without coloring
+     * it, for {@link #colorize(IterationMap, MandelbrotColoring)}.
+     *
+     * @param processor The Mandelbrot processor, shared by all tiles.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param aaFactor The number of samples per pixel along each axis.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @return The raw results of every sample.
+     */
+    public IterationMap renderIterations(PrimitiveMandelbrotProcessor processor, int width,
+            int height, int maxIteration, double bailout, int aaFactor,
+            PixelToDoubleCartesian convert) {
+        IterationMap map = new IterationMap(width, height, aaFactor);
+        int sampleWidth = map.getSampleWidth();
+        double aaJump = 1.0 / (double) aaFactor;
+        double first = 0.5 * aaJump - 0.5;
+        double stepX = aaJump * convert.getXPlanePerPixel();
+
+        render(width, height, null, (x, y, tileWidth, tileHeight, pixels, scanline) -> {
+            int rowSamples = tileWidth * aaFactor;
+            MandelbrotBuffer buffer = new MandelbrotBuffer(rowSamples);
+            double startX = convert.toPlaneX(x + first);
+            for (int j = y * aaFactor; j < (y + tileHeight) * aaFactor; j++) {
+                processor.processSpan(startX, stepX, convert.toPlaneY(first + j * aaJump),
+                        rowSamples, maxIteration, bailout, buffer, 0);
+                map.set(x * aaFactor + j * sampleWidth, buffer, 0, rowSamples);
+            } //f
+        });
+
+        return map;
+    }
+
+    /**
+     * Color the samples of an iteration map and average them into pixels.
+     * This is cheap next to evaluating the samples, so a frame can be
+     * recolored as often as needed.
+     *
+     * @param map The raw results of every sample.
+     * @param coloring The coloring algorithm.
+     * @return The pixels of the frame scanned in an x-first fashion.
+     */
+    public int[] colorize(IterationMap map, MandelbrotColoring coloring) {
+        int width = map.getWidth();
+        int aaFactor = map.getAAFactor();
+        int sampleWidth = map.getSampleWidth();
+
+        int[] raster = new int[width * map.getHeight()];
+        render(width, map.getHeight(), raster, (x, y, tileWidth, tileHeight, pixels, scanline) -> {
+            int rowSamples = tileWidth * aaFactor;
+            int[] colors = new int[rowSamples * aaFactor];
+            for (int row = y; row < y + tileHeight; row++) {
+                // Color the samples of the row of pixels, then average them
+                int first = x * aaFactor + row * aaFactor * sampleWidth;
+                for (int j = 0; j < aaFactor; j++) {
+                    coloring.colorize(map, first + j * sampleWidth, rowSamples, colors,
+                            j * rowSamples);
+                } //f
+
+                for (int column = 0; column < tileWidth; column++) {
+                    pixels[x + column + row * scanline] = AntiAliasing.averageColor(colors,
+                            column * aaFactor, rowSamples, aaFactor);
+                } //f
+            } //f
+        });
+
+        return raster;
+    }
+
+    /**
+     * Reduce the samples around a pixel to one color.
+     *
+     * @param colors The colors of the lattice of samples.
+     * @param first Index of the first sample in the support of the filter.
+     * @param rowStride Distance in the lattice between rows of samples.
+     * @param weights The weight of each sample along either axis.
+     * @return The weighted average color.
+     */
+    private static int filterColor(int[] colors, int first, int rowStride, double[] weights) {
+        double alpha = 0.0;
+        double red = 0.0;
+        double green = 0.0;
+        double blue = 0.0;
+        double total = 0.0;
+
+        for (int j = 0; j < weights.length; j++) {
+            int index = first + j * rowStride;
+            for (int i = 0; i < weights.length; i++) {
+                double weight = weights[j] * weights[i];
+                int rgb = colors[index + i];
+                alpha += weight * ColorUtils.getAlpha(rgb);
+                red += weight * ColorUtils.getRed(rgb);
+                green += weight * ColorUtils.getGreen(rgb);
+                blue += weight * ColorUtils.getBlue(rgb);
+                total += weight;
+            } //f
+        } //f
+
+        return ColorUtils.toARGB((int) Math.round(alpha / total), (int) Math.round(red / total),
+                (int) Math.round(green / total), (int) Math.round(blue / total));
+    }
+
+    /**
+     * Fork/join task rendering a range of tiles, numbered in an x-first
+     * fashion.
+     */
+    private class TileTask extends RecursiveAction {
+
+        /**
+         * Version of the serialized form.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * The first tile of the range.
+         */
+        private final int first;
+        /**
+         * One past the last tile of the range.
+         */
+        private final int last;
+        /**
+         * The number of tiles across the image.
+         */
+        private final int tilesX;
+        /**
+         * The width of the image.
+         */
+        private final int width;
+        /**
+         * The height of the image.
+         */
+        private final int height;
+        /**
+         * The pixels of the image.
+         */
+        private final int[] raster;
+        /**
+         * Renders the pixels of one tile.
+         */
+        private final transient TileRenderer tileRenderer;
+
+        /**
+         * Create new instance of TileTask.
+         *
+         * @param first The first tile of the range.
+         * @param last One past the last tile of the range.
+         * @param tilesX The number of tiles across the image.
+         * @param width The width of the image.
+         * @param height The height of the image.
+         * @param raster The pixels of the image.
+         * @param tileRenderer Renders the pixels of one tile.
+         */
+        TileTask(int first, int last, int tilesX, int width, int height,
+                int[] raster, TileRenderer tileRenderer) {
+            this.first = first;
+            this.last = last;
+            this.tilesX = tilesX;
+            this.width = width;
+            this.height = height;
+            this.raster = raster;
+            this.tileRenderer = tileRenderer;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first > 1) {
+                int middle = (first + last) >>> 1;
+                invokeAll(new TileTask(first, middle, tilesX, width, height, raster, tileRenderer),
+                        new TileTask(middle, last, tilesX, width, height, raster, tileRenderer));
+                return;
+            } //i
+
+            int x = (first % tilesX) * tileSize;
+            int y = (first / tilesX) * tileSize;
+            int tileWidth = Math.min(tileSize, width - x);
+            int tileHeight = Math.min(tileSize, height - y);
+            tileRenderer.renderTile(x, y, tileWidth, tileHeight, raster, width);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.render;
+
+import com.mandelbrot.MandelbrotBuffer;
+import com.mandelbrot.MandelbrotOutput.HowFound;
+
+/**
+ * The raw results of evaluating every sample of a frame, before coloring.
+ * <p>
+ * Samples lie on a lattice of {@code aaFactor} by {@code aaFactor} samples
+ * per pixel, centered in the pixels and scanned in an x-first fashion across
+ * the whole lattice. For each sample the map keeps the iteration count, the
+ * squared length of where the orbit ended and a code describing how it was
+ * found, which is everything {@link MandelbrotColoring} needs. A frame can be
+ * recolored with a different gradient, multiplier or highlight mode by
+ * {@link FrameRenderer#colorize(IterationMap, MandelbrotColoring)} without
+ * evaluating it again.
+ * </p>
+ * <p>
+ * The squared length is kept as a float, which is ample for smooth coloring
+ * and keeps a sample to nine bytes. The backing arrays are exposed so whole
+ * frames can be colored or stored in bulk.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class IterationMap {
+
+    /**
+     * The largest number of samples a map can hold, the largest array length
+     * the JVM allows.
+     */
+    public static final int MAX_SAMPLES = Integer.MAX_VALUE - 8;
+
+    /**
+     * The width of the image in pixels.
+     */
+    private final int width;
+    /**
+     * The height of the image in pixels.
+     */
+    private final int height;
+    /**
+     * The number of samples per pixel along each axis.
+     */
+    private final int aaFactor;
+    /**
+     * The number of iterations the algorithm went through for each sample.
+     */
+    private final int[] iterations;
+    /**
+     * The squared length of where the orbit ended for each sample.
+     */
+    private final float[] magnitudes;
+    /**
+     * The ordinal of the HowFound value of each sample.
+     */
+    private final byte[] howFound;
+
+    /**
+     * Create new instance of IterationMap.
+     *
+     * @param width The width of the image in pixels.
+     * @param height The height of the image in pixels.
+     * @param aaFactor The number of samples per pixel along each axis.
+     * @throws IllegalArgumentException If the map would hold more than
+     * {@link #MAX_SAMPLES} samples.
+     */
+    public IterationMap(int width, int height, int aaFactor) {
+        long count = countSamples(width, height, aaFactor);
+        if (count > MAX_SAMPLES) {
+            throw new IllegalArgumentException("Too many samples for an iteration map!");
+        } //i
+
+        this.width = width;
+        this.height = height;
+        this.aaFactor = aaFactor;
+
+        int samples = (int) count;
+        this.iterations = new int[samples];
+        this.magnitudes = new float[samples];
+        this.howFound = new byte[samples];
+    }
+
+    /**
+     * Count the samples of a lattice without overflowing.
+     *
+     * @param width The width of the image in pixels.
+     * @param height The height of the image in pixels.
+     * @param aaFactor The number of samples per pixel along each axis.
+     * @return The number of samples.
+     * @throws IllegalArgumentException If a dimension is not positive.
+     */
+    public static long countSamples(int width, int height, int aaFactor) {
+        if (width < 1 || height < 1 || aaFactor < 1) {
+            throw new IllegalArgumentException("Width, height and aa factor must be positive!");
+        } //i
+
+        return (long) width * aaFactor * height * aaFactor;
+    }
+
+    /**
+     * Store the result of evaluating a sample.
+     *
+     * @param index The index of the sample in the lattice.
+     * @param iterations The number of iterations the algorithm went through.
+     * @param x The x-coordinate of where the orbit ended.
+     * @param y The y-coordinate of where the orbit ended.
+     * @param howFound How the sample was determined to be in the set, NOT if
+     * it isn't.
+     */
+    public void set(int index, int iterations, double x, double y, HowFound howFound) {
+        this.iterations[index] = iterations;
+        this.magnitudes[index] = (float) (x * x + y * y);
+        this.howFound[index] = (byte) howFound.ordinal();
+    }
+
+    /**
+     * Copy a span of results from a Mandelbrot buffer.
+     *
+     * @param index The index in the lattice of the first sample.
+     * @param buffer The buffer holding the results.
+     * @param offset The index in the buffer of the first result.
+     * @param count The number of results to copy.
+     */
+    public void set(int index, MandelbrotBuffer buffer, int offset, int count) {
+        double[] x = buffer.getXArray();
+        double[] y = buffer.getYArray();
+        System.arraycopy(buffer.getIterationArray(), offset, iterations, index, count);
+        System.arraycopy(buffer.getHowFoundArray(), offset, howFound, index, count);
+        for (int i = 0; i < count; i++) {
+            double zx = x[offset + i];
+            double zy = y[offset + i];
+            magnitudes[index + i] = (float) (zx * zx + zy * zy);
+        } //f
+    }
+
+    /**
+     * Get the width of the image in pixels.
+     *
+     * @return The width of the image.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the height of the image in pixels.
+     *
+     * @return The height of the image.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Get the number of samples per pixel along each axis.
+     *
+     * @return The aa factor.
+     */
+    public int getAAFactor() {
+        return aaFactor;
+    }
+
+    /**
+     * Get the number of samples across the lattice, the distance between rows
+     * of samples.
+     *
+     * @return The width of the lattice.
+     */
+    public int getSampleWidth() {
+        return width * aaFactor;
+    }
+
+    /**
+     * Get the number of samples down the lattice.
+     *
+     * @return The height of the lattice.
+     */
+    public int getSampleHeight() {
+        return height * aaFactor;
+    }
+
+    /**
+     * Get the number of samples in the lattice.
+     *
+     * @return The number of samples.
+     */
+    public int getSampleCount() {
+        return iterations.length;
+    }
+
+    /**
+     * Get the number of iterations the algorithm went through for a sample.
+     *
+     * @param index The index of the sample in the lattice.
+     * @return The number of iterations.
+     */
+    public int getIterations(int index) {
+        return iterations[index];
+    }
+
+    /**
+     * Get the squared length of where the orbit of a sample ended.
+     *
+     * @param index The index of the sample in the lattice.
+     * @return The squared length of the end of the orbit.
+     */
+    public double getMagnitude(int index) {
+        return magnitudes[index];
+    }
+
+    /**
+     * Get how a sample was determined to be in the set, if it was.
+     *
+     * @param index The index of the sample in the lattice.
+     * @return How the sample was found.
+     */
+    public HowFound getHowFound(int index) {
+        return MandelbrotBuffer.howFoundOf(howFound[index]);
+    }
+
+    /**
+     * Get the backing array of iteration counts. Changes to the map are
+     * visible through the array.
+     *
+     * @return The iteration counts of all samples.
+     */
+    public int[] getIterationArray() {
+        return iterations;
+    }
+
+    /**
+     * Get the backing array of the squared lengths of where the orbits ended.
+     * Changes to the map are visible through the array.
+     *
+     * @return The squared lengths of all samples.
+     */
+    public float[] getMagnitudeArray() {
+        return magnitudes;
+    }
+
+    /**
+     * Get the backing array of HowFound codes, the ordinal of the HowFound
+     * value of each sample. Changes to the map are visible through the array.
+     *
+     * @return The HowFound codes of all samples.
+     */
+    public byte[] getHowFoundArray() {
+        return howFound;
+    }
+}
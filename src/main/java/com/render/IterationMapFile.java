@@ -0,0 +1,339 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.render;
+
+import com.graph.PixelToDoubleCartesian;
+import com.mandelbrot.MandelbrotOutput.HowFound;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stores an {@link IterationMap} in a compact, versioned binary file, so a
+ * rendered frame can be archived and recolored later without evaluating it
+ * again.
+ * <p>
+ * The file starts with a fixed header, little-endian:
+ * </p>
+ * <pre>
+ *  0  int    magic, "MBIM"
+ *  4  int    version
+ *  8  int    width
+ * 12  int    height
+ * 16  int    aaFactor
+ * 20  int    maxIteration
+ * 24  double bailout
+ * 32  double minX of the converter
+ * 40  double minY of the converter
+ * 48  double xPlanePerPixel of the converter
+ * 56  double yPlanePerPixel of the converter
+ * </pre>
+ * <p>
+ * It is followed by one section per field, each covering every sample of the
+ * lattice in order: the iteration counts as ints, the smooth fractions as
+ * floats and the HowFound codes as bytes. The smooth fraction is the
+ * normalized iteration count that is added to the iteration count of an
+ * escaped sample, and zero for samples in the set. Sections are read and
+ * written in bulk through memory mapped buffers, so nothing is created per
+ * sample. A single mapping is limited to 2 GB, so each section is mapped in
+ * chunks of {@link #CHUNK_SAMPLES} samples.
+ * </p>
+ * <p>
+ * The converter recorded is the one the processor was given, so for deep
+ * zooms it is the relative or scaled converter of the frame.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class IterationMapFile {
+
+    /**
+     * The first four bytes of every file, "MBIM".
+     */
+    public static final int MAGIC = 0x4D42494D;
+    /**
+     * The version of the format written.
+     */
+    public static final int VERSION = 1;
+    /**
+     * The length of the header in bytes.
+     */
+    private static final int HEADER_LENGTH = 64;
+    /**
+     * The number of samples of a section mapped at once.
+     */
+    private static final int CHUNK_SAMPLES = 1 << 24;
+    /**
+     * Natural log of 2.
+     */
+    private static final double LN2 = Math.log(2.0);
+
+    /**
+     * The raw results of every sample.
+     */
+    private final IterationMap map;
+    /**
+     * Pixel to Cartesian coordinate converter of the frame.
+     */
+    private final PixelToDoubleCartesian converter;
+    /**
+     * The maximum iteration of the Mandelbrot processor.
+     */
+    private final int maxIteration;
+    /**
+     * The bailout value of the Mandelbrot processor.
+     */
+    private final double bailout;
+
+    /**
+     * Create new instance of IterationMapFile.
+     *
+     * @param map The raw results of every sample.
+     * @param converter Pixel to Cartesian coordinate converter of the frame.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     */
+    private IterationMapFile(IterationMap map, PixelToDoubleCartesian converter,
+            int maxIteration, double bailout) {
+        this.map = map;
+        this.converter = converter;
+        this.maxIteration = maxIteration;
+        this.bailout = bailout;
+    }
+
+    /**
+     * Get the raw results of every sample.
+     *
+     * @return The iteration map.
+     */
+    public IterationMap getMap() {
+        return map;
+    }
+
+    /**
+     * Get the pixel to Cartesian coordinate converter of the frame.
+     *
+     * @return The converter.
+     */
+    public PixelToDoubleCartesian getConverter() {
+        return converter;
+    }
+
+    /**
+     * Get the maximum iteration of the Mandelbrot processor.
+     *
+     * @return The maximum iteration.
+     */
+    public int getMaxIteration() {
+        return maxIteration;
+    }
+
+    /**
+     * Get the bailout value of the Mandelbrot processor.
+     *
+     * @return The bailout.
+     */
+    public double getBailout() {
+        return bailout;
+    }
+
+    /**
+     * Write an iteration map to a file, replacing it if it exists.
+     *
+     * @param path The file to write.
+     * @param map The raw results of every sample.
+     * @param converter Pixel to Cartesian coordinate converter of the frame.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @throws IOException If the file can't be written.
+     */
+    public static void write(Path path, IterationMap map, PixelToDoubleCartesian converter,
+            int maxIteration, double bailout) throws IOException {
+        int samples = map.getSampleCount();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = map(channel, FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_LENGTH);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(map.getWidth());
+            header.putInt(map.getHeight());
+            header.putInt(map.getAAFactor());
+            header.putInt(maxIteration);
+            header.putDouble(bailout);
+            header.putDouble(converter.getMinX());
+            header.putDouble(converter.getMinY());
+            header.putDouble(converter.getXPlanePerPixel());
+            header.putDouble(converter.getYPlanePerPixel());
+
+            long iterationSection = HEADER_LENGTH;
+            long fractionSection = iterationSection + 4L * samples;
+            long howFoundSection = fractionSection + 4L * samples;
+            double lnLnBailout = Math.log(Math.log(bailout));
+            int[] iterations = map.getIterationArray();
+            float[] magnitudes = map.getMagnitudeArray();
+            byte[] howFound = map.getHowFoundArray();
+            byte escaped = (byte) HowFound.NOT.ordinal();
+
+            int start = 0;
+            while (start < samples) {
+                int count = Math.min(CHUNK_SAMPLES, samples - start);
+                map(channel, FileChannel.MapMode.READ_WRITE, iterationSection + 4L * start,
+                        4L * count).asIntBuffer().put(iterations, start, count);
+
+                FloatBuffer fractions = map(channel, FileChannel.MapMode.READ_WRITE,
+                        fractionSection + 4L * start, 4L * count).asFloatBuffer();
+                for (int i = 0; i < count; i++) {
+                    int index = start + i;
+                    fractions.put(i, howFound[index] == escaped
+                            ? (float) smoothFraction(magnitudes[index], lnLnBailout) : 0.0f);
+                } //f
+
+                map(channel, FileChannel.MapMode.READ_WRITE, howFoundSection + start, count)
+                        .put(howFound, start, count);
+                start += count;
+            } //w
+        } //tc
+    }
+
+    /**
+     * Read an iteration map from a file.
+     *
+     * @param path The file to read.
+     * @return The iteration map and the parameters it was rendered with.
+     * @throws IOException If the file can't be read or isn't an iteration map
+     * of a known version.
+     */
+    public static IterationMapFile read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_LENGTH) {
+                throw new IOException("Not an iteration map file: " + path);
+            } //i
+
+            MappedByteBuffer header = map(channel, FileChannel.MapMode.READ_ONLY, 0,
+                    HEADER_LENGTH);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not an iteration map file: " + path);
+            } //i
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported iteration map version " + version + ": " + path);
+            } //i
+
+            int width = header.getInt();
+            int height = header.getInt();
+            int aaFactor = header.getInt();
+            int maxIteration = header.getInt();
+            double bailout = header.getDouble();
+            PixelToDoubleCartesian converter = PixelToDoubleCartesian.createFromPixelSize(
+                    header.getDouble(), header.getDouble(), header.getDouble(),
+                    header.getDouble(), height);
+
+            if (width < 1 || height < 1 || aaFactor < 1) {
+                throw new IOException("Invalid iteration map size: " + path);
+            } //i
+            long size = IterationMap.countSamples(width, height, aaFactor);
+            if (size > IterationMap.MAX_SAMPLES) {
+                throw new IOException("Iteration map too large to load: " + path);
+            } //i
+            if (channel.size() != HEADER_LENGTH + 9L * size) {
+                throw new IOException("Truncated iteration map file: " + path);
+            } //i
+
+            IterationMap map = new IterationMap(width, height, aaFactor);
+            int samples = map.getSampleCount();
+            long iterationSection = HEADER_LENGTH;
+            long fractionSection = iterationSection + 4L * samples;
+            long howFoundSection = fractionSection + 4L * samples;
+            double lnLnBailout = Math.log(Math.log(bailout));
+            int[] iterations = map.getIterationArray();
+            float[] magnitudes = map.getMagnitudeArray();
+            byte[] howFound = map.getHowFoundArray();
+
+            int start = 0;
+            while (start < samples) {
+                int count = Math.min(CHUNK_SAMPLES, samples - start);
+                map(channel, FileChannel.MapMode.READ_ONLY, iterationSection + 4L * start,
+                        4L * count).asIntBuffer().get(iterations, start, count);
+
+                FloatBuffer fractions = map(channel, FileChannel.MapMode.READ_ONLY,
+                        fractionSection + 4L * start, 4L * count).asFloatBuffer();
+                for (int i = 0; i < count; i++) {
+                    magnitudes[start + i] = (float) magnitude(fractions.get(i), lnLnBailout);
+                } //f
+
+                map(channel, FileChannel.MapMode.READ_ONLY, howFoundSection + start, count)
+                        .get(howFound, start, count);
+                start += count;
+            } //w
+
+            return new IterationMapFile(map, converter, maxIteration, bailout);
+        } //tc
+    }
+
+    /**
+     * Map a region of a file as a little-endian buffer.
+     *
+     * @param channel The file.
+     * @param mode Whether the region is read or written.
+     * @param position The offset of the region in the file.
+     * @param length The length of the region in bytes.
+     * @return The mapped region.
+     * @throws IOException If the region can't be mapped.
+     */
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode,
+            long position, long length) throws IOException {
+        MappedByteBuffer buffer = channel.map(mode, position, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Get the normalized iteration count added to an escaped sample.
+     *
+     * @param magnitude The squared length of where the orbit ended.
+     * @param lnLnBailout Natural log of the natural log of the bailout.
+     * @return The smooth fraction.
+     */
+    private static double smoothFraction(double magnitude, double lnLnBailout) {
+        return (lnLnBailout - Math.log(0.5 * Math.log(magnitude))) / LN2;
+    }
+
+    /**
+     * Get the squared length of where an orbit ended from its smooth
+     * fraction, the inverse of {@link #smoothFraction(double, double)}.
+     *
+     * @param fraction The smooth fraction.
+     * @param lnLnBailout Natural log of the natural log of the bailout.
+     * @return The squared length.
+     */
+    private static double magnitude(double fraction, double lnLnBailout) {
+        return Math.exp(2.0 * Math.exp(lnLnBailout - fraction * LN2));
+    }
+}
@@ -22,9 +22,13 @@
 
 package com.render;
 
+import com.gradient.CompiledGradient;
 import com.gradient.Gradient;
 import com.gradient.GradientException;
+import com.mandelbrot.MandelbrotBuffer;
+import com.mandelbrot.MandelbrotProcessors;
 import com.mandelbrot.MandelbrotOutput;
+import com.mandelbrot.MandelbrotOutput.HowFound;
 import com.utils.ColorUtils;
 
 /**
@@ -40,6 +44,13 @@ import com.utils.ColorUtils;
  * appealing gradients and zoom effects. This class supports anti-aliasing and
  * high-resolution rendering workflows.
  * </p>
+ * <p>
+ * Whole spans of samples can be colored at once with {@code colorize}, which
+ * uses a fast logarithm, the Vector API when the {@code jdk.incubator.vector}
+ * module is enabled, and the compiled table of the gradient. Its colors can
+ * differ from {@link #getColor(int, double, double, HowFound)} by a step of
+ * the gradient where the exact position falls on a boundary between steps.
+ * </p>
  *
  * @author George Miller
  * @version 1.0, 2025-06-10
@@ -56,10 +67,28 @@ public class MandelbrotColoring {
      * output number, gives a value which matches the output of the processor.
      */
     private static final int FIXED_GRADIENT_LENGTH = 100000;
+    /**
+     * Number of samples colored together by colorize.
+     */
+    private static final int CHUNK_SIZE = 1024;
+    /**
+     * Name of the vector coloring kernel, loaded reflectively so this class
+     * links without the vector module.
+     */
+    private static final String VECTOR_KERNEL = "com.render.ColoringKernelVector";
+    /**
+     * Computes normalized iteration counts in bulk.
+     */
+    private static final ColoringKernel KERNEL = createKernel();
     /**
      * Natural log of the natural log of the bailout, ln(ln(bailout)).
      */
     private final double lnLnBailout;
+    /**
+     * The part of the normalized iteration count that depends on the bailout,
+     * in base 2 form.
+     */
+    private final double nicConstant;
     /**
      * Color gradient.
      */
@@ -106,6 +135,7 @@ public class MandelbrotColoring {
     public MandelbrotColoring(double bailout, Gradient gradient,
             boolean showType, double multiplier) {
         this.lnLnBailout = Math.log(Math.log(bailout));
+        this.nicConstant = (lnLnBailout - Math.log(0.5 * LN2)) / LN2;
         this.gradient = gradient;
         this.showType = showType;
         this.multiplier = multiplier;
@@ -118,11 +148,67 @@ public class MandelbrotColoring {
      * @param result The output of the Mandelbrot processor.
      * @return The color of the pixel.
      */
-    public int getColor(MandelbrotOutput result) {
-        boolean inSet = result.isInSet();
-        if (inSet) {
+    public int getColor(MandelbrotOutput<?> result) {
+        return getColor(result.getIterations(), result.getDoubleX(),
+                result.getDoubleY(), result.getHowFound());
+    }
+
+    /**
+     * Get the color of a pixel based upon a result stored in a Mandelbrot
+     * buffer.
+     *
+     * @param buffer The buffer holding the output of the Mandelbrot processor.
+     * @param index The index of the result in the buffer.
+     * @return The color of the pixel.
+     */
+    public int getColor(MandelbrotBuffer buffer, int index) {
+        return getColor(buffer.getIterations(index), buffer.getX(index),
+                buffer.getY(index), buffer.getHowFound(index));
+    }
+
+    /**
+     * Get the color of a sample based upon a result stored in an iteration
+     * map.
+     *
+     * @param map The iteration map holding the output of the Mandelbrot
+     * processor.
+     * @param index The index of the sample in the map.
+     * @return The color of the sample.
+     */
+    public int getColor(IterationMap map, int index) {
+        return getColorFromMagnitude(map.getIterations(index), map.getMagnitude(index),
+                map.getHowFound(index));
+    }
+
+    /**
+     * Get the color of a pixel based upon the primitive values produced by the
+     * Mandelbrot processor at that pixel.
+     *
+     * @param iteration The number of iterations the processor went through.
+     * @param zx The x-coordinate of where the orbit ended.
+     * @param zy The y-coordinate of where the orbit ended.
+     * @param howFound How the point was determined to be in the set, NOT if it
+     * isn't.
+     * @return The color of the pixel.
+     */
+    public int getColor(int iteration, double zx, double zy, HowFound howFound) {
+        return getColorFromMagnitude(iteration, zx * zx + zy * zy, howFound);
+    }
+
+    /**
+     * Get the color of a pixel based upon the iteration count and the squared
+     * length of where the orbit ended.
+     *
+     * @param iteration The number of iterations the processor went through.
+     * @param magnitude The squared length of where the orbit ended.
+     * @param howFound How the point was determined to be in the set, NOT if it
+     * isn't.
+     * @return The color of the pixel.
+     */
+    public int getColorFromMagnitude(int iteration, double magnitude, HowFound howFound) {
+        if (howFound != HowFound.NOT) {
             if (showType) {
-                switch (result.getHowFound()) {
+                switch (howFound) {
                     case MAX_ITERATION:
                         return MAX_ITERATION_COLOR;
                     case BULB:
@@ -137,12 +223,8 @@ public class MandelbrotColoring {
             } //ie
         } //i
 
-        double zx = result.getDoubleX();
-        double zy = result.getDoubleY();
-        int iteration = result.getIterations();
-
         //Apply nic to iteration.
-        double position = normalizedIterationCount(zx, zy);
+        double position = normalizedIterationCount(magnitude);
         position += iteration;
 
         //Smooth result by apply square root.
@@ -166,15 +248,163 @@ public class MandelbrotColoring {
         return color;
     }
 
+    /**
+     * Color a span of results stored in a Mandelbrot buffer.
+     *
+     * @param buffer The buffer holding the output of the Mandelbrot processor.
+     * @param offset The index in the buffer of the first result.
+     * @param count The number of results.
+     * @param raster Array the colors are written to.
+     * @param rasterOffset Index in the array of the first color.
+     */
+    public void colorize(MandelbrotBuffer buffer, int offset, int count, int[] raster,
+            int rasterOffset) {
+        colorize(buffer.getIterationArray(), buffer.getXArray(), buffer.getYArray(),
+                buffer.getHowFoundArray(), offset, count, raster, rasterOffset);
+    }
+
+    /**
+     * Color a span of results held in primitive arrays, as produced by the
+     * Mandelbrot processors.
+     *
+     * @param iterations The number of iterations of each result.
+     * @param zx The x-coordinate of where each orbit ended.
+     * @param zy The y-coordinate of where each orbit ended.
+     * @param howFound The HowFound code of each result.
+     * @param offset The index in the arrays of the first result.
+     * @param count The number of results.
+     * @param raster Array the colors are written to.
+     * @param rasterOffset Index in the array of the first color.
+     */
+    public void colorize(int[] iterations, double[] zx, double[] zy, byte[] howFound,
+            int offset, int count, int[] raster, int rasterOffset) {
+        CompiledGradient table = compiledGradient();
+        double[] positions = new double[Math.min(count, CHUNK_SIZE)];
+
+        for (int start = 0; start < count; start += CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, count - start);
+            for (int i = 0; i < length; i++) {
+                double x = zx[offset + start + i];
+                double y = zy[offset + start + i];
+                positions[i] = x * x + y * y;
+            } //f
+
+            colorChunk(table, iterations, howFound, offset + start, length, positions,
+                    raster, rasterOffset + start);
+        } //f
+    }
+
+    /**
+     * Color a span of samples stored in an iteration map.
+     *
+     * @param map The iteration map holding the output of the Mandelbrot
+     * processor.
+     * @param offset The index in the map of the first sample.
+     * @param count The number of samples.
+     * @param raster Array the colors are written to.
+     * @param rasterOffset Index in the array of the first color.
+     */
+    public void colorize(IterationMap map, int offset, int count, int[] raster,
+            int rasterOffset) {
+        CompiledGradient table = compiledGradient();
+        float[] magnitudes = map.getMagnitudeArray();
+        double[] positions = new double[Math.min(count, CHUNK_SIZE)];
+
+        for (int start = 0; start < count; start += CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, count - start);
+            for (int i = 0; i < length; i++) {
+                positions[i] = magnitudes[offset + start + i];
+            } //f
+
+            colorChunk(table, map.getIterationArray(), map.getHowFoundArray(), offset + start,
+                    length, positions, raster, rasterOffset + start);
+        } //f
+    }
+
+    /**
+     * Color a chunk of results whose squared end lengths have been gathered.
+     *
+     * @param table The compiled gradient, null if it couldn't be compiled.
+     * @param iterations The number of iterations of each result.
+     * @param howFound The HowFound code of each result.
+     * @param offset The index in the arrays of the first result.
+     * @param count The number of results.
+     * @param positions The squared end length of each result, from the start
+     * of the array. Overwritten.
+     * @param raster Array the colors are written to.
+     * @param rasterOffset Index in the array of the first color.
+     */
+    private void colorChunk(CompiledGradient table, int[] iterations, byte[] howFound,
+            int offset, int count, double[] positions, int[] raster, int rasterOffset) {
+        KERNEL.normalizedIterationCounts(positions, count, nicConstant, positions);
+
+        byte escaped = (byte) HowFound.NOT.ordinal();
+        for (int i = 0; i < count; i++) {
+            byte code = howFound[offset + i];
+            if (code != escaped) {
+                raster[rasterOffset + i] = getColorFromMagnitude(0, 0.0,
+                        MandelbrotBuffer.howFoundOf(code));
+                continue;
+            } //i
+
+            //Smooth result by apply square root.
+            double position = Math.sqrt(positions[i] + iterations[offset + i]) * multiplier;
+
+            //Push into range of gradient -> into range fixed gradient length.
+            int index = (int) position % FIXED_GRADIENT_LENGTH;
+            if (table == null) {
+                raster[rasterOffset + i] = 0;
+            } else if (table.getResolution() == FIXED_GRADIENT_LENGTH) {
+                raster[rasterOffset + i] = table.getColor(index);
+            } else {
+                raster[rasterOffset + i] = table.getColor(
+                        (double) index / (double) FIXED_GRADIENT_LENGTH);
+            } //ie
+        } //f
+    }
+
+    /**
+     * Get the compiled table of the gradient.
+     *
+     * @return The compiled gradient, or null if the gradient isn't formed.
+     */
+    private CompiledGradient compiledGradient() {
+        try {
+            return gradient.getCompiled();
+        } catch (GradientException ex) {
+            System.out.println("Gradient not formed: " + ex.getMessage());
+            return null;
+        } //tc
+    }
+
+    /**
+     * Create the vector coloring kernel if the vector module is enabled and
+     * the scalar processor hasn't been forced, otherwise the scalar kernel.
+     *
+     * @return The fastest coloring kernel available.
+     */
+    private static ColoringKernel createKernel() {
+        String choice = System.getProperty(MandelbrotProcessors.PROCESSOR_PROPERTY, "auto");
+        if (!choice.equalsIgnoreCase("scalar") && MandelbrotProcessors.isVectorAvailable()) {
+            try {
+                return (ColoringKernel) Class.forName(VECTOR_KERNEL)
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError ex) {
+                System.out.println("Vector coloring failed to load: " + ex);
+            } //tc
+        } //i
+
+        return new ColoringKernelScalar();
+    }
+
     /**
      * Normalized iteration count addition value for a coordinate.
      *
-     * @param x X coordinate of point to check for.
-     * @param y Y coordinate of point to check for.
+     * @param magnitude The squared length of the coordinate.
      * @return Normalized iteration count addition for that coordinate.
      */
-    private double normalizedIterationCount(double x, double y) {
-        double radius = Math.sqrt(x * x + y * y);
+    private double normalizedIterationCount(double magnitude) {
+        double radius = Math.sqrt(magnitude);
         double ln2R = Math.log(Math.log(radius));
         double nic = (lnLnBailout - ln2R) / LN2;
         return nic;
@@ -0,0 +1,514 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.render;
+
+import com.graph.PixelToDoubleCartesian;
+import com.mandelbrot.MandelbrotBuffer;
+import com.mandelbrot.MandelbrotOutput.HowFound;
+import com.mandelbrot.MandelbrotProcessors;
+import com.mandelbrot.PrimitiveMandelbrotProcessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Renders frames by rectangle subdivision, evaluating only the borders of
+ * regions that turn out to be uniform (the Mariani–Silver algorithm).
+ * <p>
+ * The image is laid out in power of two squares, as {@link LayoutElement}s
+ * like the layout maps of {@link RenderUtils}. The grid lines between the
+ * largest squares are evaluated first. Then for each square, if every pixel
+ * on its border is in the set, or every pixel on its border escaped after the
+ * same number of iterations, the interior is filled without being evaluated.
+ * Otherwise the lines through its middle are evaluated and its four quarters
+ * are checked the same way, down to a minimum size where the interior is
+ * simply evaluated. Squares are processed as fork/join tasks.
+ * </p>
+ * <p>
+ * Filling the interior of a square bordered by the set is exact, as the set
+ * is full: its complement is connected, so no escaping point can be enclosed
+ * by a border lying in the set. Filled interior pixels are marked
+ * {@link HowFound#MAX_ITERATION}, since the check that would have caught
+ * each of them is unknown. Filling an escape band is a guess: a small feature can sit
+ * wholly inside a square whose border escaped uniformly. In guess safety mode
+ * the lines through the middle of a square are evaluated and must agree with
+ * its border as well before it is filled, which catches most such features.
+ * Filled escape pixels get an end point interpolated from the border so that
+ * smooth coloring stays smooth across the square.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class MarianiSilverRenderer {
+
+    /**
+     * Default size of the largest squares.
+     */
+    public static final int DEFAULT_MAX_SQUARE_SIZE = 64;
+    /**
+     * Default size of the smallest squares, evaluated without checking their
+     * borders.
+     */
+    public static final int DEFAULT_MIN_SQUARE_SIZE = 4;
+    /**
+     * The pool the squares are processed on.
+     */
+    private final ForkJoinPool pool;
+    /**
+     * The size of the largest squares.
+     */
+    private final int maxSquareSize;
+    /**
+     * The size of the smallest squares.
+     */
+    private final int minSquareSize;
+    /**
+     * Whether the lines through the middle of a square must agree with its
+     * border before it is filled.
+     */
+    private final boolean guessSafe;
+
+    /**
+     * Create new instance of MarianiSilverRenderer using the common pool,
+     * the default square sizes and guess safety.
+     */
+    public MarianiSilverRenderer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MAX_SQUARE_SIZE, DEFAULT_MIN_SQUARE_SIZE, true);
+    }
+
+    /**
+     * Create new instance of MarianiSilverRenderer.
+     *
+     * @param pool The pool the squares are processed on.
+     * @param maxSquareSize The size of the largest squares, a power of 2.
+     * @param minSquareSize The size of the smallest squares, a power of 2 no
+     * larger than the largest. Squares this size are evaluated in full.
+     * @param guessSafe True if the lines through the middle of a square must
+     * agree with its border before it is filled.
+     */
+    public MarianiSilverRenderer(ForkJoinPool pool, int maxSquareSize, int minSquareSize,
+            boolean guessSafe) {
+        if (Integer.bitCount(maxSquareSize) != 1 || Integer.bitCount(minSquareSize) != 1) {
+            throw new IllegalArgumentException("Square sizes must be integer powers of 2!");
+        } //i
+        if (minSquareSize > maxSquareSize) {
+            throw new IllegalArgumentException("Min square size can't exceed max square size!");
+        } //i
+
+        this.pool = pool;
+        this.maxSquareSize = maxSquareSize;
+        this.minSquareSize = minSquareSize;
+        this.guessSafe = guessSafe;
+    }
+
+    /**
+     * Render a frame of the Mandelbrot set with one sample per pixel.
+     *
+     * @param processor The Mandelbrot processor, shared by all tasks.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @return The result of every pixel scanned in an x-first fashion.
+     */
+    public MandelbrotBuffer render(PrimitiveMandelbrotProcessor processor, int width,
+            int height, int maxIteration, double bailout, PixelToDoubleCartesian convert) {
+        MandelbrotBuffer output = new MandelbrotBuffer(width * height);
+        if (width <= 0 || height <= 0) {
+            return output;
+        } //i
+
+        Frame frame = new Frame(processor, width, height, maxIteration, bailout, convert, output);
+
+        // Grid lines between the largest squares, and the last row and column
+        List<ForkJoinTask<?>> lines = new ArrayList<>();
+        for (int y = 0; y < height; y += maxSquareSize) {
+            int row = y;
+            lines.add(ForkJoinTask.adapt(() -> frame.evaluateRow(row, 0, width - 1)));
+        } //f
+        if ((height - 1) % maxSquareSize != 0) {
+            lines.add(ForkJoinTask.adapt(() -> frame.evaluateRow(height - 1, 0, width - 1)));
+        } //i
+        for (int x = 0; x < width; x += maxSquareSize) {
+            int column = x;
+            lines.add(ForkJoinTask.adapt(() -> frame.evaluateGridColumn(column, maxSquareSize)));
+        } //f
+        if ((width - 1) % maxSquareSize != 0) {
+            lines.add(ForkJoinTask.adapt(() -> frame.evaluateGridColumn(width - 1, maxSquareSize)));
+        } //i
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(lines)));
+
+        // Then the largest squares between them
+        List<SquareTask> squares = new ArrayList<>();
+        for (int y = 0; y < height - 1; y += maxSquareSize) {
+            for (int x = 0; x < width - 1; x += maxSquareSize) {
+                squares.add(new SquareTask(frame, new LayoutElement(x, y, maxSquareSize)));
+            } //f
+        } //f
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(squares)));
+
+        return output;
+    }
+
+    /**
+     * Render a colored frame of the Mandelbrot set with one sample per pixel.
+     *
+     * @param processor The Mandelbrot processor, shared by all tasks.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param coloring The coloring algorithm.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @return The pixels of the frame scanned in an x-first fashion.
+     */
+    public int[] renderColored(PrimitiveMandelbrotProcessor processor, int width, int height,
+            MandelbrotColoring coloring, int maxIteration, double bailout,
+            PixelToDoubleCartesian convert) {
+        MandelbrotBuffer output = render(processor, width, height, maxIteration, bailout, convert);
+
+        int[] raster = new int[width * height];
+        for (int i = 0; i < raster.length; i++) {
+            raster[i] = coloring.getColor(output, i);
+        } //f
+
+        return raster;
+    }
+
+    /**
+     * Render a colored frame of the Mandelbrot set with one sample per pixel
+     * using the fastest double precision processor.
+     *
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param coloring The coloring algorithm.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @return The pixels of the frame scanned in an x-first fashion.
+     */
+    public int[] renderColored(int width, int height, MandelbrotColoring coloring,
+            int maxIteration, double bailout, PixelToDoubleCartesian convert) {
+        return renderColored(MandelbrotProcessors.createPrimitive(), width, height, coloring,
+                maxIteration, bailout, convert);
+    }
+
+    /**
+     * The state of one frame being rendered.
+     */
+    private static class Frame {
+
+        /**
+         * The Mandelbrot processor.
+         */
+        private final PrimitiveMandelbrotProcessor processor;
+        /**
+         * The width of the image.
+         */
+        private final int width;
+        /**
+         * The height of the image.
+         */
+        private final int height;
+        /**
+         * The maximum number of iterations.
+         */
+        private final int maxIteration;
+        /**
+         * The escape bailout.
+         */
+        private final double bailout;
+        /**
+         * Pixel to Cartesian coordinate converter.
+         */
+        private final PixelToDoubleCartesian convert;
+        /**
+         * The result of every pixel.
+         */
+        private final MandelbrotBuffer output;
+
+        /**
+         * Create new instance of Frame.
+         *
+         * @param processor The Mandelbrot processor.
+         * @param width The width of the image.
+         * @param height The height of the image.
+         * @param maxIteration The maximum number of iterations.
+         * @param bailout The escape bailout.
+         * @param convert Pixel to Cartesian coordinate converter.
+         * @param output The result of every pixel.
+         */
+        Frame(PrimitiveMandelbrotProcessor processor, int width, int height, int maxIteration,
+                double bailout, PixelToDoubleCartesian convert, MandelbrotBuffer output) {
+            this.processor = processor;
+            this.width = width;
+            this.height = height;
+            this.maxIteration = maxIteration;
+            this.bailout = bailout;
+            this.convert = convert;
+            this.output = output;
+        }
+
+        /**
+         * Evaluate a run of pixels of a row.
+         *
+         * @param y The row.
+         * @param fromX The first x-coordinate, inclusive.
+         * @param toX The last x-coordinate, inclusive.
+         */
+        void evaluateRow(int y, int fromX, int toX) {
+            if (toX < fromX) {
+                return;
+            } //i
+
+            processor.processSpan(convert.toPlaneX(fromX), convert.getXPlanePerPixel(),
+                    convert.toPlaneY(y), toX - fromX + 1, maxIteration, bailout,
+                    output, fromX + y * width);
+        }
+
+        /**
+         * Evaluate a run of pixels of a column.
+         *
+         * @param x The column.
+         * @param fromY The first y-coordinate, inclusive.
+         * @param toY The last y-coordinate, inclusive.
+         */
+        void evaluateColumn(int x, int fromY, int toY) {
+            double planeX = convert.toPlaneX(x);
+            for (int y = fromY; y <= toY; y++) {
+                processor.processCoordinate(planeX, convert.toPlaneY(y), maxIteration, bailout,
+                        output, x + y * width);
+            } //f
+        }
+
+        /**
+         * Evaluate the pixels of a grid column that aren't on a grid row.
+         *
+         * @param x The column.
+         * @param rowSpacing The distance between grid rows.
+         */
+        void evaluateGridColumn(int x, int rowSpacing) {
+            for (int y = 0; y < height - 1; y += rowSpacing) {
+                evaluateColumn(x, y + 1, Math.min(y + rowSpacing, height - 1) - 1);
+            } //f
+        }
+
+        /**
+         * Determine if two evaluated pixels belong to the same region, both
+         * in the set or both escaped after the same number of iterations.
+         *
+         * @param a The index of the first pixel.
+         * @param b The index of the second pixel.
+         * @return True if they match.
+         */
+        boolean matches(int a, int b) {
+            boolean inSet = output.isInSet(a);
+            if (inSet != output.isInSet(b)) {
+                return false;
+            } //i
+
+            return inSet || output.getIterations(a) == output.getIterations(b);
+        }
+
+        /**
+         * Determine if every pixel of a horizontal run matches a pixel.
+         *
+         * @param reference The index of the pixel to match.
+         * @param y The row.
+         * @param fromX The first x-coordinate, inclusive.
+         * @param toX The last x-coordinate, inclusive.
+         * @return True if they all match.
+         */
+        boolean rowMatches(int reference, int y, int fromX, int toX) {
+            for (int x = fromX; x <= toX; x++) {
+                if (!matches(reference, x + y * width)) {
+                    return false;
+                } //i
+            } //f
+
+            return true;
+        }
+
+        /**
+         * Determine if every pixel of a vertical run matches a pixel.
+         *
+         * @param reference The index of the pixel to match.
+         * @param x The column.
+         * @param fromY The first y-coordinate, inclusive.
+         * @param toY The last y-coordinate, inclusive.
+         * @return True if they all match.
+         */
+        boolean columnMatches(int reference, int x, int fromY, int toY) {
+            for (int y = fromY; y <= toY; y++) {
+                if (!matches(reference, x + y * width)) {
+                    return false;
+                } //i
+            } //f
+
+            return true;
+        }
+
+        /**
+         * Fill the interior of a rectangle from its border without evaluating
+         * it. Escaped pixels get an end point whose length is interpolated
+         * from the four sides. Pixels in the set are marked as reaching the
+         * maximum iteration rather than copying how the corner was found.
+         *
+         * @param x0 The left column of the border.
+         * @param y0 The top row of the border.
+         * @param x1 The right column of the border.
+         * @param y1 The bottom row of the border.
+         */
+        void fill(int x0, int y0, int x1, int y1) {
+            int reference = x0 + y0 * width;
+            int iterations = output.getIterations(reference);
+            HowFound howFound = output.getHowFound(reference);
+            boolean inSet = output.isInSet(reference);
+
+            for (int y = y0 + 1; y < y1; y++) {
+                double ty = (double) (y - y0) / (y1 - y0);
+                double left = radius(x0 + y * width);
+                double right = radius(x1 + y * width);
+
+                for (int x = x0 + 1; x < x1; x++) {
+                    int index = x + y * width;
+                    if (inSet) {
+                        output.set(index, maxIteration, output.getX(reference),
+                                output.getY(reference), HowFound.MAX_ITERATION);
+                        continue;
+                    } //i
+
+                    double tx = (double) (x - x0) / (x1 - x0);
+                    double top = radius(x + y0 * width);
+                    double bottom = radius(x + y1 * width);
+                    double r = 0.5 * ((left + (right - left) * tx) + (top + (bottom - top) * ty));
+                    output.set(index, iterations, r, 0.0, howFound);
+                } //f
+            } //f
+        }
+
+        /**
+         * Get the length of where the orbit of an evaluated pixel ended.
+         *
+         * @param index The index of the pixel.
+         * @return The length of the end point.
+         */
+        private double radius(int index) {
+            double x = output.getX(index);
+            double y = output.getY(index);
+            return Math.sqrt(x * x + y * y);
+        }
+    }
+
+    /**
+     * Fork/join task processing one square whose border has been evaluated.
+     */
+    private class SquareTask extends RecursiveAction {
+
+        /**
+         * Version of the serialized form.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * The frame being rendered.
+         */
+        private final transient Frame frame;
+        /**
+         * The square, its border runs from its corner to the corner
+         * {@code squareSize} pixels along, clipped to the image.
+         */
+        private final transient LayoutElement square;
+
+        /**
+         * Create new instance of SquareTask.
+         *
+         * @param frame The frame being rendered.
+         * @param square The square.
+         */
+        SquareTask(Frame frame, LayoutElement square) {
+            this.frame = frame;
+            this.square = square;
+        }
+
+        @Override
+        protected void compute() {
+            int size = square.getSquareSize();
+            int x0 = square.getX();
+            int y0 = square.getY();
+            int x1 = Math.min(x0 + size, frame.width - 1);
+            int y1 = Math.min(y0 + size, frame.height - 1);
+            if (x1 - x0 < 2 || y1 - y0 < 2) {
+                return;
+            } //i
+
+            if (size <= minSquareSize) {
+                for (int y = y0 + 1; y < y1; y++) {
+                    frame.evaluateRow(y, x0 + 1, x1 - 1);
+                } //f
+                return;
+            } //i
+
+            int reference = x0 + y0 * frame.width;
+            boolean uniform = frame.rowMatches(reference, y0, x0, x1)
+                    && frame.rowMatches(reference, y1, x0, x1)
+                    && frame.columnMatches(reference, x0, y0, y1)
+                    && frame.columnMatches(reference, x1, y0, y1);
+            if (uniform && !guessSafe) {
+                frame.fill(x0, y0, x1, y1);
+                return;
+            } //i
+
+            // Lines through the middle, the borders of the quarters
+            int half = size / 2;
+            int xm = x0 + half;
+            int ym = y0 + half;
+            boolean splitX = xm < x1;
+            boolean splitY = ym < y1;
+            if (splitY) {
+                frame.evaluateRow(ym, x0 + 1, x1 - 1);
+            } //i
+            if (splitX) {
+                frame.evaluateColumn(xm, y0 + 1, (splitY ? ym : y1) - 1);
+                if (splitY) {
+                    frame.evaluateColumn(xm, ym + 1, y1 - 1);
+                } //i
+            } //i
+
+            if (uniform
+                    && (!splitY || frame.rowMatches(reference, ym, x0 + 1, x1 - 1))
+                    && (!splitX || frame.columnMatches(reference, xm, y0 + 1, y1 - 1))) {
+                frame.fill(x0, y0, x1, y1);
+                return;
+            } //i
+
+            invokeAll(new SquareTask(frame, new LayoutElement(x0, y0, half)),
+                    new SquareTask(frame, new LayoutElement(xm, y0, half)),
+                    new SquareTask(frame, new LayoutElement(x0, ym, half)),
+                    new SquareTask(frame, new LayoutElement(xm, ym, half)));
+        }
+    }
+}
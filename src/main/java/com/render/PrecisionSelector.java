@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.render;
+
+import com.graph.PixelToDoubleCartesian;
+import com.graph.PixelToDoubleDoubleCartesian;
+import com.graph.PixelToFloatExpCartesian;
+import com.mandelbrot.DoubleDouble;
+import com.mandelbrot.FloatExp;
+import com.mandelbrot.MandelbrotProcessorDoubleDouble;
+import com.mandelbrot.MandelbrotProcessorFloatExp;
+import com.mandelbrot.MandelbrotProcessorPerturbation;
+import com.mandelbrot.MandelbrotProcessors;
+import com.mandelbrot.PrecisionTier;
+import com.mandelbrot.PrimitiveMandelbrotProcessor;
+import java.math.BigDecimal;
+
+/**
+ * Picks the arithmetic that renders a frame correctly.
+ * <p>
+ * A tier is correct for a frame when neighbouring samples are at least
+ * {@link #PIXEL_RESOLUTION} units in the last place apart at the magnitude of
+ * the frame center, so rounding never merges them. The first of double,
+ * double-double and perturbation that is correct is used. Double-double comes
+ * before perturbation because it needs no reference orbit and cannot glitch.
+ * Frames whose pixels underflow a double use extended exponent perturbation.
+ * </p>
+ * <p>
+ * {@link #createFrame} builds the chosen processor together with the converter
+ * that produces the coordinates it expects, so callers can switch tiers from
+ * frame to frame without knowing their details.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class PrecisionSelector {
+
+    /**
+     * The number of distinct values of a tier's number type that neighbouring
+     * samples must be apart for it to render them cleanly.
+     */
+    public static final double PIXEL_RESOLUTION = 1024.0;
+    /**
+     * The unit in the last place of a double-double relative to that of a
+     * double.
+     */
+    private static final double DOUBLE_DOUBLE_ULP = 0x1.0p-53;
+
+    /**
+     * A frame ready to be rendered in the chosen tier.
+     */
+    public static class Frame {
+
+        /**
+         * The chosen tier.
+         */
+        private final PrecisionTier tier;
+        /**
+         * The processor of the tier.
+         */
+        private final PrimitiveMandelbrotProcessor processor;
+        /**
+         * Pixel to coordinate converter producing what the processor expects.
+         */
+        private final PixelToDoubleCartesian convert;
+
+        /**
+         * Create new instance of Frame.
+         *
+         * @param tier The chosen tier.
+         * @param processor The processor of the tier.
+         * @param convert Pixel to coordinate converter producing what the
+         * processor expects.
+         */
+        Frame(PrecisionTier tier, PrimitiveMandelbrotProcessor processor,
+                PixelToDoubleCartesian convert) {
+            this.tier = tier;
+            this.processor = processor;
+            this.convert = convert;
+        }
+
+        /**
+         * Get the chosen tier.
+         *
+         * @return The tier.
+         */
+        public PrecisionTier getTier() {
+            return tier;
+        }
+
+        /**
+         * Get the processor of the tier.
+         *
+         * @return The processor.
+         */
+        public PrimitiveMandelbrotProcessor getProcessor() {
+            return processor;
+        }
+
+        /**
+         * Get the pixel to coordinate converter producing what the processor
+         * expects.
+         *
+         * @return The converter.
+         */
+        public PixelToDoubleCartesian getConverter() {
+            return convert;
+        }
+    }
+
+    /**
+     * Pick the first of double, double-double and perturbation that resolves
+     * the samples of a frame, or extended exponent perturbation if its pixels
+     * underflow a double.
+     *
+     * @param xCenter The x-coordinate of the center of the frame.
+     * @param yCenter The y-coordinate of the center of the frame.
+     * @param pixelSpacing The length of the plane that each pixel represents.
+     * @param aaFactor The aa factor, the number of samples across a pixel.
+     * @return The tier.
+     */
+    public PrecisionTier selectTier(BigDecimal xCenter, BigDecimal yCenter,
+            FloatExp pixelSpacing, int aaFactor) {
+        if (MandelbrotProcessorFloatExp.isNeeded(pixelSpacing)) {
+            return PrecisionTier.FLOAT_EXP;
+        } //i
+
+        double magnitude = Math.max(Math.max(Math.abs(xCenter.doubleValue()),
+                Math.abs(yCenter.doubleValue())), 1.0);
+        double sampleSpacing = pixelSpacing.toDouble() / aaFactor;
+
+        if (sampleSpacing >= Math.ulp(magnitude) * PIXEL_RESOLUTION) {
+            return PrecisionTier.DOUBLE;
+        } //i
+        if (sampleSpacing >= Math.ulp(magnitude) * DOUBLE_DOUBLE_ULP * PIXEL_RESOLUTION) {
+            return PrecisionTier.DOUBLE_DOUBLE;
+        } //i
+
+        return PrecisionTier.PERTURBATION;
+    }
+
+    /**
+     * Pick the tier that renders a frame correctly, as
+     * {@link #selectTier} does, and create its processor and converter.
+     *
+     * @param xCenter The x-coordinate of the center of the frame.
+     * @param yCenter The y-coordinate of the center of the frame.
+     * @param planeWidth The width of the plane.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param aaFactor The aa factor.
+     * @param maxIteration The maximum number of iterations.
+     * @param bailout The escape bailout.
+     * @return The frame, ready to render.
+     */
+    public Frame createFrame(BigDecimal xCenter, BigDecimal yCenter, FloatExp planeWidth,
+            int width, int height, int aaFactor, int maxIteration, double bailout) {
+        FloatExp pixelSpacing = planeWidth.divide(width - 1);
+        PrecisionTier tier = selectTier(xCenter, yCenter, pixelSpacing, aaFactor);
+
+        switch (tier) {
+            case DOUBLE:
+                return new Frame(tier, MandelbrotProcessors.createPrimitive(),
+                        absoluteConverter(xCenter, yCenter, planeWidth, width, height));
+            case DOUBLE_DOUBLE:
+                PixelToDoubleDoubleCartesian doubleDouble = PixelToDoubleDoubleCartesian
+                        .createFromCenterPlaneWidth(DoubleDouble.valueOf(xCenter),
+                                DoubleDouble.valueOf(yCenter), planeWidth.toDouble(), width, height);
+                return new Frame(tier, new MandelbrotProcessorDoubleDouble(doubleDouble.getXCenter(),
+                        doubleDouble.getYCenter()), doubleDouble.toRelativeCartesian());
+            case PERTURBATION:
+                double spacing = pixelSpacing.toDouble();
+                double maxOffset = 0.5 * spacing * Math.hypot(width, height);
+                return new Frame(tier, new MandelbrotProcessorPerturbation(xCenter, yCenter,
+                        spacing, maxOffset, maxIteration, bailout),
+                        PixelToDoubleCartesian.createFromCenterPlaneWidth(0.0, 0.0,
+                                planeWidth.toDouble(), width, height));
+            default:
+                PixelToFloatExpCartesian floatExp = PixelToFloatExpCartesian
+                        .createFromCenterPlaneWidth(FloatExp.ZERO, FloatExp.ZERO, planeWidth,
+                                width, height);
+                return new Frame(tier, new MandelbrotProcessorFloatExp(xCenter, yCenter,
+                        floatExp.getXPlanePerPixel(), floatExp.getScaleExponent(),
+                        maxIteration, bailout), floatExp.toScaledCartesian());
+        } //s
+    }
+
+    /**
+     * Create a converter to absolute coordinates in double precision.
+     *
+     * @param xCenter The x-coordinate of the center of the frame.
+     * @param yCenter The y-coordinate of the center of the frame.
+     * @param planeWidth The width of the plane.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @return New converter.
+     */
+    private static PixelToDoubleCartesian absoluteConverter(BigDecimal xCenter,
+            BigDecimal yCenter, FloatExp planeWidth, int width, int height) {
+        return PixelToDoubleCartesian.createFromCenterPlaneWidth(xCenter.doubleValue(),
+                yCenter.doubleValue(), planeWidth.toDouble(), width, height);
+    }
+}
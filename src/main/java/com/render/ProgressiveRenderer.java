@@ -0,0 +1,379 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.render;
+
+import com.graph.PixelToDoubleCartesian;
+import com.mandelbrot.MandelbrotBuffer;
+import com.mandelbrot.MandelbrotProcessors;
+import com.mandelbrot.PrimitiveMandelbrotProcessor;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Renders frames coarse to fine in the order of a layout map, publishing
+ * intermediate images as it goes.
+ * <p>
+ * Pixels are evaluated in the order given by
+ * {@link RenderUtils#makeLayoutMap(int, int, int)}: one pixel per largest
+ * square first, then the pixels that halve the squares, down to single
+ * pixels. Each layer of the map is evaluated in parallel on a fork/join pool.
+ * When a layer finishes and a checkpoint has been passed, the image so far is
+ * drawn with {@link RenderUtils#renderImage} and handed to a listener, so a
+ * usable preview is ready after the first few layers.
+ * </p>
+ * <p>
+ * A pixel is not evaluated when the four corners of the square of the layer
+ * above that contains it agree: all in the set, or all escaped after the same
+ * number of iterations. It takes the color of the corner instead. Like any
+ * guess this can miss features smaller than the square, in exchange for
+ * skipping much of the flat interior and escape bands.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class ProgressiveRenderer {
+
+    /**
+     * Default size of the largest squares.
+     */
+    public static final int DEFAULT_MAX_SQUARE_SIZE = 64;
+    /**
+     * Number of layout elements below which a task isn't split.
+     */
+    private static final int CHUNK_SIZE = 256;
+
+    /**
+     * Receives the intermediate images of a progressive render.
+     */
+    @FunctionalInterface
+    public interface CheckpointListener {
+
+        /**
+         * Called after a checkpoint has been passed.
+         *
+         * @param image The image so far.
+         * @param rendered The number of layout elements done.
+         * @param total The number of layout elements in the image.
+         */
+        void checkpoint(BufferedImage image, int rendered, int total);
+    }
+
+    /**
+     * The pool the pixels are evaluated on.
+     */
+    private final ForkJoinPool pool;
+    /**
+     * The size of the largest squares.
+     */
+    private final int maxSquareSize;
+    /**
+     * The fractions of the layout after which an image is published, in
+     * ascending order.
+     */
+    private final double[] checkpoints;
+
+    /**
+     * Create new instance of ProgressiveRenderer using the common pool, the
+     * default square size, and publishing after 1%, 25% and all of the
+     * layout.
+     */
+    public ProgressiveRenderer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MAX_SQUARE_SIZE, new double[]{0.01, 0.25, 1.0});
+    }
+
+    /**
+     * Create new instance of ProgressiveRenderer.
+     *
+     * @param pool The pool the pixels are evaluated on.
+     * @param maxSquareSize The size of the largest squares, an integer power
+     * of 2.
+     * @param checkpoints The fractions of the layout after which an image is
+     * published, in ascending order.
+     */
+    public ProgressiveRenderer(ForkJoinPool pool, int maxSquareSize, double[] checkpoints) {
+        this.pool = pool;
+        this.maxSquareSize = maxSquareSize;
+        this.checkpoints = checkpoints.clone();
+    }
+
+    /**
+     * Render a frame of the Mandelbrot set progressively using the fastest
+     * double precision processor.
+     *
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param coloring The coloring algorithm.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @param listener Receives the intermediate images.
+     * @return The pixels of the frame scanned in an x-first fashion.
+     */
+    public int[] render(int width, int height, MandelbrotColoring coloring, int maxIteration,
+            double bailout, PixelToDoubleCartesian convert, CheckpointListener listener) {
+        return render(MandelbrotProcessors.createPrimitive(), width, height, coloring,
+                maxIteration, bailout, convert, listener);
+    }
+
+    /**
+     * Render a frame of the Mandelbrot set progressively.
+     *
+     * @param processor The Mandelbrot processor, shared by all tasks.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param coloring The coloring algorithm.
+     * @param maxIteration The maximum iteration of the Mandelbrot processor.
+     * @param bailout The bailout value of the Mandelbrot processor.
+     * @param convert Pixel to Cartesian coordinate converter.
+     * @param listener Receives the intermediate images.
+     * @return The pixels of the frame scanned in an x-first fashion.
+     */
+    public int[] render(PrimitiveMandelbrotProcessor processor, int width, int height,
+            MandelbrotColoring coloring, int maxIteration, double bailout,
+            PixelToDoubleCartesian convert, CheckpointListener listener) {
+        List<LayoutElement> map = RenderUtils.makeLayoutMap(width, height, maxSquareSize);
+        int[] pixels = new int[width * height];
+        Frame frame = new Frame(processor, width, height, coloring, maxIteration, bailout,
+                convert, map, pixels);
+
+        int total = map.size();
+        int checkpoint = 0;
+        int start = 0;
+        while (start < total) {
+            // One layer, every element the same size
+            int size = map.get(start).getSquareSize();
+            int end = start;
+            while (end < total && map.get(end).getSquareSize() == size) {
+                end++;
+            } //w
+
+            pool.invoke(new LayerTask(frame, start, end));
+            start = end;
+
+            boolean passed = false;
+            while (checkpoint < checkpoints.length && start >= checkpoints[checkpoint] * total) {
+                checkpoint++;
+                passed = true;
+            } //w
+            if (passed && listener != null) {
+                listener.checkpoint(RenderUtils.renderImage(pixels, width, height, start, map),
+                        start, total);
+            } //i
+        } //w
+
+        return pixels;
+    }
+
+    /**
+     * The state of one frame being rendered.
+     */
+    private static class Frame {
+
+        /**
+         * The Mandelbrot processor.
+         */
+        private final PrimitiveMandelbrotProcessor processor;
+        /**
+         * The width of the image.
+         */
+        private final int width;
+        /**
+         * The height of the image.
+         */
+        private final int height;
+        /**
+         * The coloring algorithm.
+         */
+        private final MandelbrotColoring coloring;
+        /**
+         * The maximum number of iterations.
+         */
+        private final int maxIteration;
+        /**
+         * The escape bailout.
+         */
+        private final double bailout;
+        /**
+         * Pixel to Cartesian coordinate converter.
+         */
+        private final PixelToDoubleCartesian convert;
+        /**
+         * The layout map.
+         */
+        private final List<LayoutElement> map;
+        /**
+         * The result of every pixel done so far.
+         */
+        private final MandelbrotBuffer output;
+        /**
+         * The colors of the pixels done so far.
+         */
+        private final int[] pixels;
+
+        /**
+         * Create new instance of Frame.
+         *
+         * @param processor The Mandelbrot processor.
+         * @param width The width of the image.
+         * @param height The height of the image.
+         * @param coloring The coloring algorithm.
+         * @param maxIteration The maximum number of iterations.
+         * @param bailout The escape bailout.
+         * @param convert Pixel to Cartesian coordinate converter.
+         * @param map The layout map.
+         * @param pixels The colors of the pixels.
+         */
+        Frame(PrimitiveMandelbrotProcessor processor, int width, int height,
+                MandelbrotColoring coloring, int maxIteration, double bailout,
+                PixelToDoubleCartesian convert, List<LayoutElement> map, int[] pixels) {
+            this.processor = processor;
+            this.width = width;
+            this.height = height;
+            this.coloring = coloring;
+            this.maxIteration = maxIteration;
+            this.bailout = bailout;
+            this.convert = convert;
+            this.map = map;
+            this.output = new MandelbrotBuffer(width * height);
+            this.pixels = pixels;
+        }
+
+        /**
+         * Evaluate and color the pixel of one layout element, unless the
+         * corners of the square containing it agree.
+         *
+         * @param element The layout element.
+         */
+        void render(LayoutElement element) {
+            int x = element.getX();
+            int y = element.getY();
+            int index = x + y * width;
+
+            int corner = agreeingCorner(x, y, element.getSquareSize() * 2);
+            if (corner >= 0) {
+                output.set(index, output.getIterations(corner), output.getX(corner),
+                        output.getY(corner), output.getHowFound(corner));
+                pixels[index] = pixels[corner];
+                return;
+            } //i
+
+            processor.processCoordinate(convert.toPlaneX(x), convert.toPlaneY(y),
+                    maxIteration, bailout, output, index);
+            pixels[index] = coloring.getColor(output, index);
+        }
+
+        /**
+         * Find if the corners of the square of the layer above containing a
+         * pixel agree.
+         *
+         * @param x The x-coordinate of the pixel.
+         * @param y The y-coordinate of the pixel.
+         * @param parentSize The size of the squares of the layer above.
+         * @return The index of the top left corner if all four agree, -1 if
+         * they don't or the square isn't wholly inside the image.
+         */
+        private int agreeingCorner(int x, int y, int parentSize) {
+            int left = x - x % parentSize;
+            int top = y - y % parentSize;
+            int right = left + parentSize;
+            int bottom = top + parentSize;
+            if (parentSize > map.get(0).getSquareSize() || right >= width || bottom >= height) {
+                return -1;
+            } //i
+
+            int corner = left + top * width;
+            return matches(corner, right + top * width)
+                    && matches(corner, left + bottom * width)
+                    && matches(corner, right + bottom * width) ? corner : -1;
+        }
+
+        /**
+         * Determine if two done pixels belong to the same region, both in the
+         * set or both escaped after the same number of iterations.
+         *
+         * @param a The index of the first pixel.
+         * @param b The index of the second pixel.
+         * @return True if they match.
+         */
+        private boolean matches(int a, int b) {
+            boolean inSet = output.isInSet(a);
+            if (inSet != output.isInSet(b)) {
+                return false;
+            } //i
+
+            return inSet || output.getIterations(a) == output.getIterations(b);
+        }
+    }
+
+    /**
+     * Fork/join task rendering a range of layout elements of one layer.
+     */
+    private static class LayerTask extends RecursiveAction {
+
+        /**
+         * Version of the serialized form.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * The frame being rendered.
+         */
+        private final transient Frame frame;
+        /**
+         * The first element of the range.
+         */
+        private final int first;
+        /**
+         * One past the last element of the range.
+         */
+        private final int last;
+
+        /**
+         * Create new instance of LayerTask.
+         *
+         * @param frame The frame being rendered.
+         * @param first The first element of the range.
+         * @param last One past the last element of the range.
+         */
+        LayerTask(Frame frame, int first, int last) {
+            this.frame = frame;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first > CHUNK_SIZE) {
+                int middle = (first + last) >>> 1;
+                invokeAll(new LayerTask(frame, first, middle), new LayerTask(frame, middle, last));
+                return;
+            } //i
+
+            for (int i = first; i < last; i++) {
+                frame.render(frame.map.get(i));
+            } //f
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.render;
+
+/**
+ * Filters that reduce a lattice of samples to pixels.
+ * <p>
+ * Samples are weighted by their distance from the center of the pixel, in
+ * pixels, separately along each axis. Samples outside the support of the
+ * filter don't contribute.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public enum ReconstructionFilter {
+
+    /**
+     * Equal weight for every sample inside the pixel. Sharp, and no sample is
+     * shared with a neighbour.
+     */
+    BOX(0.5) {
+        @Override
+        public double weight(double distance) {
+            return Math.abs(distance) < 0.5 ? 1.0 : 0.0;
+        }
+    },
+    /**
+     * Weight falling linearly to zero one pixel from the center. Samples are
+     * shared with the neighbouring pixels, which smooths jagged edges and
+     * moiré at the cost of a little sharpness.
+     */
+    TENT(1.0) {
+        @Override
+        public double weight(double distance) {
+            return Math.max(0.0, 1.0 - Math.abs(distance));
+        }
+    };
+
+    /**
+     * The distance from the center of a pixel beyond which samples have no
+     * weight.
+     */
+    private final double radius;
+
+    /**
+     * Create new instance of ReconstructionFilter.
+     *
+     * @param radius The distance beyond which samples have no weight.
+     */
+    ReconstructionFilter(double radius) {
+        this.radius = radius;
+    }
+
+    /**
+     * Get the distance from the center of a pixel beyond which samples have
+     * no weight.
+     *
+     * @return The radius in pixels.
+     */
+    public double getRadius() {
+        return radius;
+    }
+
+    /**
+     * Get the weight of a sample along one axis.
+     *
+     * @param distance The distance of the sample from the center of the pixel
+     * along the axis, in pixels.
+     * @return The weight of the sample.
+     */
+    public abstract double weight(double distance);
+}
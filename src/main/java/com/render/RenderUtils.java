@@ -21,10 +21,14 @@
  */
 package com.render;
 
-import java.awt.Color;
-import java.awt.Graphics;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,7 +40,8 @@ import java.util.Map;
  * This class provides tools to:
  * </p>
  * <ul>
- *   <li>Convert between image data and 1D pixel arrays</li>
+ *   <li>Convert between image data and 1D pixel arrays, or share one array
+ *   between both without copying</li>
  *   <li>Generate hierarchical layout maps for progressive rendering</li>
  *   <li>Render partially or fully completed images based on layout mapping</li>
  * </ul>
@@ -55,6 +60,15 @@ public class RenderUtils {
      * The sizes (pixels x-y) that squares of the layout may be.
      */
     private static final Map<Integer, Integer> LEGAL_SQUARE_SIZES = new HashMap<>();
+    /**
+     * Color model of pixels packed as ARGB ints.
+     */
+    private static final DirectColorModel ARGB_MODEL = new DirectColorModel(32,
+            0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000);
+    /**
+     * Alpha bits of a fully opaque pixel.
+     */
+    private static final int OPAQUE = 0xff000000;
 
     /**
      * Create legal squares.
@@ -68,7 +82,8 @@ public class RenderUtils {
     }
 
     /**
-     * Convert an image to a 1D array representing the image.
+     * Convert an image to a 1D array representing the image. Images backed by
+     * an int array are copied in bulk.
      *
      * @param image Image to be converted a 1D array.
      * @return The pixels of the image as a 1D array.
@@ -76,22 +91,25 @@ public class RenderUtils {
     public static int[] imageToPixels(BufferedImage image) {
         int width = image.getWidth();
         int height = image.getHeight();
-        int size = width * height;
 
-        int[] pixels = new int[size];
-        int index = 0;
+        int[] data = getPixels(image);
+        if (data == null) {
+            return image.getRGB(0, 0, width, height, null, 0, width);
+        } //i
 
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                pixels[index++] = image.getRGB(x, y);
+        int[] pixels = data.clone();
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            for (int i = 0; i < pixels.length; i++) {
+                pixels[i] |= OPAQUE;
             } //f
-        } //f
+        } //i
 
         return pixels;
     }
 
     /**
-     * Convert an 1D array to an image.
+     * Convert an 1D array to an image. The pixels are copied, so the array can
+     * be reused.
      *
      * @param pixels Pixels representing an image scanned in an x-first fashion.
      * @param width The width of the image.
@@ -100,16 +118,58 @@ public class RenderUtils {
      */
     public static BufferedImage pixelsToImage(int[] pixels, int width, int height) {
         BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        System.arraycopy(pixels, 0, getPixels(image), 0, width * height);
+        return image;
+    }
 
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int index = x + (y * width);
-                int rgb = pixels[index];
-                image.setRGB(x, y, rgb);
-            } //f
-        } //f
+    /**
+     * Wrap a 1D array in an ARGB image without copying it. Changes to the
+     * array are visible in the image and the other way around, so a renderer
+     * can write straight into an image it will save.
+     *
+     * @param pixels Pixels representing an image scanned in an x-first fashion.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @return The image backed by the pixel array.
+     */
+    public static BufferedImage wrapPixels(int[] pixels, int width, int height) {
+        if (pixels.length < width * height) {
+            throw new IllegalArgumentException("Pixel array smaller than image!");
+        } //i
 
-        return image;
+        DataBufferInt buffer = new DataBufferInt(pixels, width * height);
+        WritableRaster raster = WritableRaster.createPackedRaster(buffer, width, height, width,
+                ARGB_MODEL.getMasks(), null);
+        return new BufferedImage(ARGB_MODEL, raster, false, null);
+    }
+
+    /**
+     * Get the int array backing an image, scanned in an x-first fashion, if it
+     * has one. This is the case for images of type TYPE_INT_ARGB and
+     * TYPE_INT_RGB created normally or by {@link #wrapPixels}. Changes to the
+     * array are visible in the image; TYPE_INT_RGB pixels have no alpha.
+     *
+     * @param image The image.
+     * @return The backing array, or null if the image isn't backed by a
+     * single, tightly packed int array.
+     */
+    public static int[] getPixels(BufferedImage image) {
+        int type = image.getType();
+        if (type != BufferedImage.TYPE_INT_ARGB && type != BufferedImage.TYPE_INT_RGB) {
+            return null;
+        } //i
+
+        WritableRaster raster = image.getRaster();
+        DataBuffer buffer = raster.getDataBuffer();
+        if (!(buffer instanceof DataBufferInt) || buffer.getNumBanks() != 1
+                || buffer.getOffset() != 0 || raster.getParent() != null
+                || !(raster.getSampleModel() instanceof SinglePixelPackedSampleModel)
+                || ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride()
+                != image.getWidth()) {
+            return null;
+        } //i
+
+        return ((DataBufferInt) buffer).getData();
     }
 
     /**
@@ -134,20 +194,19 @@ public class RenderUtils {
 
         int squareLayers = LEGAL_SQUARE_SIZES.get(maxSquareSize) + 1;
         int currentSquareSize = maxSquareSize;
-        boolean[][] pixelsUsed = new boolean[width][height];
 
-        List<LayoutElement> elements = new ArrayList<LayoutElement>();
+        List<LayoutElement> elements = new ArrayList<LayoutElement>(width * height);
 
         for (int i = 0; i < squareLayers; i++) {
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    boolean validX = x % currentSquareSize == 0;
-                    boolean validY = y % currentSquareSize == 0;
-
-                    if (validX && validY && !pixelsUsed[x][y]) {
-                        LayoutElement element = new LayoutElement(x, y, currentSquareSize);
-                        elements.add(element);
-                        pixelsUsed[x][y] = true;
+            // Points on the grid of the layer above are already in the map.
+            int usedSize = currentSquareSize * 2;
+            boolean firstLayer = i == 0;
+
+            for (int y = 0; y < height; y += currentSquareSize) {
+                boolean usedY = y % usedSize == 0;
+                for (int x = 0; x < width; x += currentSquareSize) {
+                    if (firstLayer || !usedY || x % usedSize != 0) {
+                        elements.add(new LayoutElement(x, y, currentSquareSize));
                     } //i
                 } //f
             } //f
@@ -174,29 +233,23 @@ public class RenderUtils {
     public static BufferedImage renderImage(int[] pixels, int width, int height,
             int renderTo, List<LayoutElement> map) {
         BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] data = getPixels(image);
 
-        Graphics g = null;
-        try {
-            g = image.createGraphics();
-            for (int i = 0; i < renderTo; i++) {
-                LayoutElement element = map.get(i);
-
-                int x = element.getX();
-                int y = element.getY();
+        for (int i = 0; i < renderTo; i++) {
+            LayoutElement element = map.get(i);
 
-                int index = x + (y * width);
-                int rgb = pixels[index];
-                Color color = new Color(rgb);
-                g.setColor(color);
+            int x = element.getX();
+            int y = element.getY();
 
-                int squareSize = element.getSquareSize();
-                g.fillRect(x, y, squareSize, squareSize);
+            // Squares are drawn opaque, clipped to the image
+            int rgb = pixels[x + (y * width)] | OPAQUE;
+            int right = Math.min(width, x + element.getSquareSize());
+            int bottom = Math.min(height, y + element.getSquareSize());
+            for (int row = y; row < bottom; row++) {
+                int offset = row * width;
+                Arrays.fill(data, offset + x, offset + right, rgb);
             } //f
-        } finally {
-            if (g != null) {
-                g.dispose();
-            } //i
-        } //tf
+        } //f
 
         return image;
     }
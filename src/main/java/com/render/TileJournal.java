@@ -0,0 +1,421 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.render;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of the finished tiles of a long render, so a render
+ * interrupted by a crash or reboot resumes where it stopped.
+ * <p>
+ * The file starts with a header, little-endian:
+ * </p>
+ * <pre>
+ *  0  int    magic, "MBTJ"
+ *  4  int    version
+ *  8  int    width
+ * 12  int    height
+ * 16  long   signature of the render settings
+ * </pre>
+ * <p>
+ * It is followed by one record per finished tile: the ints x, y, width and
+ * height of the tile, the CRC-32 of those ints and its pixels, then its ARGB
+ * pixels row by row. When a journal is opened every record is checked and
+ * indexed. The log is cut at the first record that is incomplete or fails its
+ * CRC, which is where a crash interrupted a write. {@link #wrap} then reads
+ * the tiles already logged back from the file instead of rendering them. A
+ * journal with a different size or signature belongs to another render and is
+ * started over.
+ * </p>
+ * <p>
+ * Records are written as tiles finish, from any rendering thread, and forced
+ * to the disk at most once a second. A crash loses at most the last second
+ * of tiles.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class TileJournal implements AutoCloseable {
+
+    /**
+     * The first four bytes of every file, "MBTJ".
+     */
+    public static final int MAGIC = 0x4D42544A;
+    /**
+     * The version of the format written.
+     */
+    public static final int VERSION = 2;
+    /**
+     * The length of the header in bytes.
+     */
+    private static final int HEADER_LENGTH = 24;
+    /**
+     * The length of the fixed part of a record in bytes.
+     */
+    private static final int RECORD_HEADER_LENGTH = 20;
+    /**
+     * The position of the CRC in a record, after the bytes of the record
+     * header it covers.
+     */
+    private static final int CRC_POSITION = 16;
+    /**
+     * The longest time between forcing records to the disk, in milliseconds.
+     */
+    private static final long FORCE_INTERVAL = 1000;
+
+    /**
+     * The log file.
+     */
+    private final Path file;
+    /**
+     * The channel records are appended to.
+     */
+    private final FileChannel channel;
+    /**
+     * The width of the image.
+     */
+    private final int width;
+    /**
+     * The position of the record of every tile logged, keyed by the top left
+     * pixel of the tile.
+     */
+    private final Map<Long, Long> logged = new ConcurrentHashMap<>();
+    /**
+     * The time records were last forced to the disk.
+     */
+    private long lastForce = System.currentTimeMillis();
+
+    /**
+     * Create new instance of TileJournal.
+     *
+     * @param file The log file.
+     * @param channel The channel records are appended to, positioned at the
+     * end of the log.
+     * @param width The width of the image.
+     */
+    private TileJournal(Path file, FileChannel channel, int width) {
+        this.file = file;
+        this.channel = channel;
+        this.width = width;
+    }
+
+    /**
+     * Open the journal of a render, or start a new one.
+     *
+     * @param file The log file.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param signature Identifies the render settings, see
+     * {@link #signature(Object...)}.
+     * @return The journal, positioned to append new tiles.
+     * @throws IOException If the file can't be read or written.
+     */
+    public static TileJournal open(Path file, int width, int height, long signature)
+            throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        TileJournal journal = new TileJournal(file, channel, width);
+        try {
+            long end = journal.replay(height, signature);
+            if (end < 0) {
+                // Missing, damaged or from another render, start over
+                ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height)
+                        .putLong(signature).flip();
+                channel.truncate(0);
+                writeFully(channel, header, 0);
+                channel.force(true);
+                end = HEADER_LENGTH;
+            } //i
+
+            channel.truncate(end);
+            channel.position(end);
+            return journal;
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        } //tc
+    }
+
+    /**
+     * Compute a signature of the settings of a render from their string
+     * forms.
+     *
+     * @param settings Everything that changes the pixels of the render.
+     * @return The signature.
+     */
+    public static long signature(Object... settings) {
+        CRC32 crc = new CRC32();
+        long result = 0;
+        for (Object setting : settings) {
+            crc.update(String.valueOf(setting).getBytes(StandardCharsets.UTF_8));
+            crc.update(0);
+            result = result * 31 + crc.getValue();
+        } //f
+        return result;
+    }
+
+    /**
+     * Get the number of tiles logged.
+     *
+     * @return The number of finished tiles.
+     */
+    public int getFinishedTiles() {
+        return logged.size();
+    }
+
+    /**
+     * Wrap a tile renderer so tiles already logged are read back from the log
+     * and new tiles are logged as they finish.
+     *
+     * @param tileRenderer Renders the pixels of one tile.
+     * @return The journaled tile renderer.
+     */
+    public FrameRenderer.TileRenderer wrap(FrameRenderer.TileRenderer tileRenderer) {
+        return (x, y, tileWidth, tileHeight, raster, scanline) -> {
+            Long record = logged.get(key(x, y));
+            try {
+                if (record != null && restore(record, x, y, tileWidth, tileHeight, raster,
+                        scanline)) {
+                    return;
+                } //i
+            } catch (IOException ex) {
+                System.err.printf("Failed to restore tile at %d, %d: %s\n", x, y, ex);
+            } //tc
+
+            tileRenderer.renderTile(x, y, tileWidth, tileHeight, raster, scanline);
+            try {
+                append(x, y, tileWidth, tileHeight, raster, scanline);
+            } catch (IOException ex) {
+                // The tile is rendered, it will just be rendered again after a crash
+                System.err.printf("Failed to log tile at %d, %d: %s\n", x, y, ex);
+            } //tc
+        };
+    }
+
+    /**
+     * Force the log to the disk and close it.
+     *
+     * @throws IOException If the log can't be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(true);
+            channel.close();
+        } //i
+    }
+
+    /**
+     * Close and delete the log, once the finished image is saved.
+     *
+     * @throws IOException If the log can't be deleted.
+     */
+    public void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Append the record of a finished tile.
+     *
+     * @param x The x-coordinate of the top left pixel of the tile.
+     * @param y The y-coordinate of the top left pixel of the tile.
+     * @param tileWidth The width of the tile.
+     * @param tileHeight The height of the tile.
+     * @param raster The pixels of the image.
+     * @param scanline The width of the image.
+     * @throws IOException If the record can't be written.
+     */
+    private void append(int x, int y, int tileWidth, int tileHeight, int[] raster,
+            int scanline) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_LENGTH + 4 * tileWidth * tileHeight)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        record.putInt(x).putInt(y).putInt(tileWidth).putInt(tileHeight).putInt(0);
+        IntBuffer pixels = record.asIntBuffer();
+        for (int row = 0; row < tileHeight; row++) {
+            pixels.put(raster, x + (y + row) * scanline, tileWidth);
+        } //f
+
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, CRC_POSITION);
+        crc.update(record.array(), RECORD_HEADER_LENGTH, record.capacity() - RECORD_HEADER_LENGTH);
+        record.putInt(CRC_POSITION, (int) crc.getValue());
+        record.clear();
+
+        long position;
+        synchronized (this) {
+            position = channel.position();
+            while (record.hasRemaining()) {
+                channel.write(record);
+            } //w
+
+            long now = System.currentTimeMillis();
+            if (now - lastForce >= FORCE_INTERVAL) {
+                channel.force(false);
+                lastForce = now;
+            } //i
+        } //s
+        logged.put(key(x, y), position);
+    }
+
+    /**
+     * Copy the pixels of a logged tile into the raster.
+     *
+     * @param position The position of the record of the tile.
+     * @param x The x-coordinate of the top left pixel of the tile.
+     * @param y The y-coordinate of the top left pixel of the tile.
+     * @param tileWidth The width of the tile.
+     * @param tileHeight The height of the tile.
+     * @param raster The pixels of the image.
+     * @param scanline The width of the image.
+     * @return False if the logged tile has a different size.
+     * @throws IOException If the record can't be read.
+     */
+    private boolean restore(long position, int x, int y, int tileWidth, int tileHeight,
+            int[] raster, int scanline) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_LENGTH + 4 * tileWidth * tileHeight)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        if (!readFully(channel, record, position) || record.getInt(8) != tileWidth
+                || record.getInt(12) != tileHeight) {
+            return false;
+        } //i
+
+        IntBuffer pixels = record.position(RECORD_HEADER_LENGTH).slice()
+                .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        for (int row = 0; row < tileHeight; row++) {
+            pixels.get(raster, x + (y + row) * scanline, tileWidth);
+        } //f
+        return true;
+    }
+
+    /**
+     * Read the log, checking and indexing every record.
+     *
+     * @param height The height of the image.
+     * @param signature The signature of the render.
+     * @return The position after the last intact record, or -1 if the log
+     * belongs to another render.
+     * @throws IOException If the file can't be read.
+     */
+    private long replay(int height, long signature) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        if (!readFully(channel, header, 0) || header.getInt(0) != MAGIC
+                || header.getInt(4) != VERSION || header.getInt(8) != width
+                || header.getInt(12) != height || header.getLong(16) != signature) {
+            return -1;
+        } //i
+
+        long position = HEADER_LENGTH;
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_LENGTH)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        CRC32 crc = new CRC32();
+        while (readFully(channel, recordHeader.clear(), position)) {
+            int x = recordHeader.getInt(0);
+            int y = recordHeader.getInt(4);
+            int tileWidth = recordHeader.getInt(8);
+            int tileHeight = recordHeader.getInt(12);
+            if (x < 0 || y < 0 || tileWidth <= 0 || tileHeight <= 0
+                    || x + tileWidth > width || y + tileHeight > height) {
+                break;
+            } //i
+
+            ByteBuffer data = ByteBuffer.allocate(4 * tileWidth * tileHeight)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (!readFully(channel, data, position + RECORD_HEADER_LENGTH)) {
+                break;
+            } //i
+            crc.reset();
+            crc.update(recordHeader.array(), 0, CRC_POSITION);
+            crc.update(data.array());
+            if ((int) crc.getValue() != recordHeader.getInt(CRC_POSITION)) {
+                break;
+            } //i
+
+            logged.put(key(x, y), position);
+            position += RECORD_HEADER_LENGTH + data.capacity();
+        } //w
+
+        return position;
+    }
+
+    /**
+     * Fill a buffer from a position in a channel.
+     *
+     * @param channel The channel.
+     * @param buffer The buffer, filled from its position to its limit.
+     * @param position The position in the channel.
+     * @return False if the channel ended first.
+     * @throws IOException If the channel can't be read.
+     */
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position() - start) < 0) {
+                return false;
+            } //i
+        } //w
+        return true;
+    }
+
+    /**
+     * Write a whole buffer at a position in a channel.
+     *
+     * @param channel The channel.
+     * @param buffer The buffer, written from its position to its limit.
+     * @param position The position in the channel.
+     * @throws IOException If the channel can't be written.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position() - start);
+        } //w
+    }
+
+    /**
+     * Get the key of a tile.
+     *
+     * @param x The x-coordinate of the top left pixel of the tile.
+     * @param y The y-coordinate of the top left pixel of the tile.
+     * @return The key.
+     */
+    private static long key(int x, int y) {
+        return ((long) y << 32) | x;
+    }
+}
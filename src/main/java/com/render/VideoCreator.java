@@ -35,7 +35,8 @@ import java.util.*;
  * <p>
  * The method supports configurable frame rate, output filename, and frame count,
  * and provides real-time logging of FFmpeg's output. Requires a working FFmpeg
- * binary at {@code ffmpeg/ffmpeg.exe}.
+ * binary, found by {@link VideoStream#findFfmpeg()}. To encode frames as they
+ * are rendered without writing PNG files, use {@link VideoStream}.
  * </p>
  *
  * @author George Miller
@@ -45,7 +46,7 @@ public class VideoCreator {
 
 
     public static void createVideoFromFrames(String inputDir, String outputFile, int frameRate, int frameCount) {
-        String ffmpegPath = "ffmpeg/ffmpeg.exe";
+        String ffmpegPath = VideoStream.findFfmpeg();
 
         String inputPattern = new File(inputDir, "frame_%04d.png").getPath().replace("\\", "/");
         String outputPath = outputFile.replace("\\", "/");
@@ -0,0 +1,299 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.render;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Encodes frames into a video as they are rendered by piping them into
+ * FFmpeg.
+ * <p>
+ * FFmpeg is started reading raw {@code bgra} video from its standard input.
+ * Frames handed to {@link #writeFrame(int[])} are put on a bounded queue and
+ * written to the pipe by a background thread, so encoding overlaps the
+ * rendering of the next frames. When the queue is full the render loop waits,
+ * which keeps memory bounded if the encoder falls behind. No PNG files are
+ * written or read.
+ * </p>
+ * <p>
+ * The FFmpeg binary is found by {@link #findFfmpeg()}.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class VideoStream implements AutoCloseable {
+
+    /**
+     * System property giving the path of the FFmpeg binary.
+     */
+    public static final String FFMPEG_PROPERTY = "mandelbrot.ffmpeg";
+    /**
+     * Default number of frames that may wait to be encoded.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 4;
+    /**
+     * Bundled FFmpeg binaries, tried in order before the PATH.
+     */
+    private static final String[] BUNDLED_FFMPEG = {"ffmpeg/ffmpeg.exe", "ffmpeg/ffmpeg"};
+    /**
+     * Marks the end of the frames on the queue.
+     */
+    private static final int[] END = new int[0];
+
+    /**
+     * The width of the frames.
+     */
+    private final int width;
+    /**
+     * The height of the frames.
+     */
+    private final int height;
+    /**
+     * The FFmpeg process.
+     */
+    private final Process process;
+    /**
+     * Frames waiting to be written to FFmpeg.
+     */
+    private final BlockingQueue<int[]> queue;
+    /**
+     * Writes frames from the queue to FFmpeg.
+     */
+    private final Thread writer;
+    /**
+     * Copies the output of FFmpeg to the console.
+     */
+    private final Thread logger;
+    /**
+     * The error that stopped the writer, null if none.
+     */
+    private volatile IOException failure;
+    /**
+     * Whether the stream has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Start FFmpeg encoding an H.264 video, with the default queue capacity.
+     *
+     * @param outputFile The video file to write.
+     * @param width The width of the frames.
+     * @param height The height of the frames.
+     * @param frameRate The number of frames per second.
+     * @throws IOException If FFmpeg can't be started.
+     */
+    public VideoStream(String outputFile, int width, int height, int frameRate)
+            throws IOException {
+        this(outputFile, width, height, frameRate, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Start FFmpeg encoding an H.264 video.
+     *
+     * @param outputFile The video file to write.
+     * @param width The width of the frames.
+     * @param height The height of the frames.
+     * @param frameRate The number of frames per second.
+     * @param queueCapacity The number of frames that may wait to be encoded.
+     * @throws IOException If FFmpeg can't be started.
+     */
+    public VideoStream(String outputFile, int width, int height, int frameRate,
+            int queueCapacity) throws IOException {
+        this.width = width;
+        this.height = height;
+
+        List<String> command = new ArrayList<>();
+        command.add(findFfmpeg());
+        command.add("-y");
+        command.add("-f");
+        command.add("rawvideo");
+        command.add("-pix_fmt");
+        command.add("bgra");
+        command.add("-s");
+        command.add(width + "x" + height);
+        command.add("-framerate");
+        command.add(String.valueOf(frameRate));
+        command.add("-i");
+        command.add("-");
+        command.add("-c:v");
+        command.add("libx264");
+        command.add("-pix_fmt");
+        command.add("yuv420p");
+        command.add(outputFile.replace("\\", "/"));
+
+        System.out.println("Running command:\n" + String.join(" ", command));
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectErrorStream(true); // Merge stderr with stdout
+        this.process = builder.start();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.logger = new Thread(this::log, "ffmpeg-log");
+        this.logger.setDaemon(true);
+        this.logger.start();
+
+        this.writer = new Thread(this::write, "ffmpeg-writer");
+        this.writer.start();
+    }
+
+    /**
+     * Find the FFmpeg binary: the {@code mandelbrot.ffmpeg} system property if
+     * set, otherwise a bundled binary under {@code ffmpeg/} if present,
+     * otherwise {@code ffmpeg} from the PATH.
+     *
+     * @return The path or name of the FFmpeg binary.
+     */
+    public static String findFfmpeg() {
+        String configured = System.getProperty(FFMPEG_PROPERTY);
+        if (configured != null && !configured.isEmpty()) {
+            return configured;
+        } //i
+
+        for (String bundled : BUNDLED_FFMPEG) {
+            File file = new File(bundled);
+            if (file.isFile() && file.canExecute()) {
+                return bundled;
+            } //i
+        } //f
+
+        return "ffmpeg";
+    }
+
+    /**
+     * Queue a frame to be encoded, waiting if the queue is full. The array is
+     * read later by the writer, so it must not be changed afterwards.
+     *
+     * @param pixels The ARGB pixels of the frame scanned in an x-first
+     * fashion.
+     * @throws IOException If encoding has failed or the stream is closed.
+     * @throws InterruptedException If interrupted while waiting for space on
+     * the queue.
+     */
+    public void writeFrame(int[] pixels) throws IOException, InterruptedException {
+        if (closed) {
+            throw new IOException("Video stream closed!");
+        } //i
+        if (pixels.length != width * height) {
+            throw new IllegalArgumentException("Frame size doesn't match video!");
+        } //i
+
+        checkFailure();
+        queue.put(pixels);
+    }
+
+    /**
+     * Encode the remaining frames and wait for FFmpeg to finish the video.
+     *
+     * @throws IOException If encoding failed or FFmpeg exited with an error.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        } //i
+        closed = true;
+
+        try {
+            // The writer may have died, so don't wait on a full queue forever
+            while (writer.isAlive() && !queue.offer(END)) {
+                writer.join(100);
+            } //w
+            writer.join();
+            int exitCode = process.waitFor();
+            logger.join();
+            checkFailure();
+            if (exitCode != 0) {
+                throw new IOException("FFmpeg exited with code: " + exitCode);
+            } //i
+        } catch (InterruptedException ex) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while finishing video", ex);
+        } //tc
+    }
+
+    /**
+     * Throw the error that stopped the writer, if any.
+     *
+     * @throws IOException The error that stopped the writer.
+     */
+    private void checkFailure() throws IOException {
+        IOException error = failure;
+        if (error != null) {
+            throw new IOException("Video encoding failed", error);
+        } //i
+    }
+
+    /**
+     * Write frames from the queue to FFmpeg until the end is reached, then
+     * close its input.
+     */
+    private void write() {
+        byte[] bytes = new byte[width * height * 4];
+        // ARGB ints stored little-endian are the bytes B, G, R, A
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+        try (OutputStream out = process.getOutputStream()) {
+            while (true) {
+                int[] pixels = queue.take();
+                if (pixels == END) {
+                    break;
+                } //i
+
+                buffer.asIntBuffer().put(pixels);
+                out.write(bytes);
+            } //w
+        } catch (IOException ex) {
+            failure = ex;
+            queue.clear();
+        } catch (InterruptedException ex) {
+            failure = new IOException("Video writer interrupted", ex);
+            process.destroy();
+        } //tc
+    }
+
+    /**
+     * Copy the output of FFmpeg to the console until it exits.
+     */
+    private void log() {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                System.out.println("[FFmpeg] " + line);
+            } //w
+        } catch (IOException ex) {
+            System.out.println("FFmpeg output lost: " + ex.getMessage());
+        } //tc
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright © 2025 George Miller
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.render;
+
+import com.mandelbrot.FloatExp;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Schedules the frames of a zoom sequence onto a pool of workers.
+ * <p>
+ * The plane width of every frame is computed directly from its index as
+ * {@code startWidth * zoomFactor^(frame - 1)}, so frames don't depend on each
+ * other and can be rendered in any order. Frames are handed out from a shared
+ * queue sorted by estimated cost, most expensive first, so the slow deep
+ * frames start early and the end of the job is made of cheap frames that
+ * spread evenly over the workers.
+ * </p>
+ * <p>
+ * Each frame is normally rendered in parallel itself, so a few workers are
+ * enough to keep the processors busy through the serial parts of a frame such
+ * as reference orbits and file output.
+ * </p>
+ *
+ * @author George Miller
+ * @version 1.0, 2026-10-18
+ */
+public class ZoomScheduler {
+
+    /**
+     * Renders a single frame of the sequence.
+     */
+    @FunctionalInterface
+    public interface FrameTask {
+
+        /**
+         * Render a frame. Called from several worker threads at once.
+         *
+         * @param frame The index of the frame, from 1.
+         * @param planeWidth The width of the plane of the frame.
+         * @throws IOException If the frame can't be saved.
+         * @throws InterruptedException If interrupted while saving the frame.
+         */
+        void render(int frame, FloatExp planeWidth) throws IOException, InterruptedException;
+    }
+
+    /**
+     * Hands out the frames to render.
+     */
+    @FunctionalInterface
+    public interface FrameSource {
+
+        /**
+         * Get the next frame to render. Called from several worker threads at
+         * once.
+         *
+         * @return The index of the frame, from 1, or 0 if there are none left.
+         * @throws IOException If the next frame can't be claimed.
+         * @throws InterruptedException If interrupted while waiting for a
+         * frame.
+         */
+        int next() throws IOException, InterruptedException;
+    }
+
+    /**
+     * The width of the plane of the first frame.
+     */
+    private final FloatExp startWidth;
+    /**
+     * The base 2 logarithm of the factor the width shrinks by each frame.
+     */
+    private final double zoomLog2;
+    /**
+     * The number of frames in the sequence.
+     */
+    private final int totalFrames;
+    /**
+     * The maximum number of iterations of each frame.
+     */
+    private final IntUnaryOperator maxIterations;
+
+    /**
+     * Create new instance of ZoomScheduler.
+     *
+     * @param startWidth The width of the plane of the first frame.
+     * @param zoomFactor The factor the width is multiplied by each frame.
+     * @param totalFrames The number of frames in the sequence.
+     * @param maxIterations The maximum number of iterations of each frame,
+     * given its index.
+     */
+    public ZoomScheduler(FloatExp startWidth, double zoomFactor, int totalFrames,
+            IntUnaryOperator maxIterations) {
+        if (zoomFactor <= 0.0) {
+            throw new IllegalArgumentException("Zoom factor must be positive!");
+        } //i
+
+        this.startWidth = startWidth;
+        this.zoomLog2 = Math.log(zoomFactor) / Math.log(2.0);
+        this.totalFrames = totalFrames;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Get the width of the plane of a frame.
+     *
+     * @param frame The index of the frame, from 1.
+     * @return The width of the plane.
+     */
+    public FloatExp getPlaneWidth(int frame) {
+        // Split the power of two so deep frames don't underflow a double
+        double power = (frame - 1) * zoomLog2;
+        double whole = Math.floor(power);
+        return startWidth.multiply(Math.pow(2.0, power - whole)).scalb((long) whole);
+    }
+
+    /**
+     * Estimate the relative cost of rendering a frame. Iteration counts near
+     * the boundary grow with the depth of the zoom, up to the maximum.
+     *
+     * @param frame The index of the frame, from 1.
+     * @return The estimated cost, only meaningful compared to other frames.
+     */
+    public double estimateCost(int frame) {
+        double depth = startWidth.log2() - getPlaneWidth(frame).log2();
+        return maxIterations.applyAsInt(frame) * (1.0 + Math.max(depth, 0.0));
+    }
+
+    /**
+     * Get every frame of the sequence, most expensive first.
+     *
+     * @return The indexes of the frames in the order they should be rendered.
+     */
+    public int[] getFramesByCost() {
+        return IntStream.rangeClosed(1, totalFrames).boxed()
+                .sorted(Comparator.comparingDouble(this::estimateCost).reversed())
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Render every frame of the sequence, most expensive first, and wait for
+     * them to finish. After the first failure no more frames are started.
+     *
+     * @param workers The number of frames rendered at once.
+     * @param skip Selects frames that don't need rendering, such as those
+     * already saved.
+     * @param task Renders a frame.
+     * @throws IOException If a frame failed.
+     * @throws InterruptedException If interrupted while waiting for frames.
+     */
+    public void run(int workers, IntPredicate skip, FrameTask task)
+            throws IOException, InterruptedException {
+        List<Integer> frames = new ArrayList<>();
+        for (int frame : getFramesByCost()) {
+            if (skip.test(frame)) {
+                System.out.printf("Skipping frame %d (already exists)\n", frame);
+            } else {
+                frames.add(frame);
+            } //ie
+        } //f
+
+        AtomicInteger next = new AtomicInteger();
+        run(workers, () -> {
+            int index = next.getAndIncrement();
+            return index < frames.size() ? frames.get(index) : 0;
+        }, task);
+    }
+
+    /**
+     * Render the frames handed out by a source until it has none left, and
+     * wait for them to finish. After the first failure no more frames are
+     * started.
+     *
+     * @param workers The number of frames rendered at once.
+     * @param source Hands out the frames to render.
+     * @param task Renders a frame.
+     * @throws IOException If a frame failed.
+     * @throws InterruptedException If interrupted while waiting for frames.
+     */
+    public void run(int workers, FrameSource source, FrameTask task)
+            throws IOException, InterruptedException {
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        List<Future<Void>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < workers; i++) {
+                results.add(pool.submit(() -> {
+                    int frame;
+                    while (failed.get() == 0 && (frame = source.next()) > 0) {
+                        try {
+                            task.render(frame, getPlaneWidth(frame));
+                        } catch (IOException | InterruptedException | RuntimeException ex) {
+                            failed.incrementAndGet();
+                            throw ex;
+                        } //tc
+                    } //w
+                    return null;
+                }));
+            } //f
+
+            for (Future<Void> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    } //i
+                    if (cause instanceof InterruptedException) {
+                        throw (InterruptedException) cause;
+                    } //i
+                    throw new IOException("Frame rendering failed", cause);
+                } //tc
+            } //f
+        } finally {
+            pool.shutdownNow();
+        } //tf
+    }
+}